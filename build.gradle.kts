@@ -3,6 +3,7 @@ import io.spring.gradle.dependencymanagement.dsl.DependencyManagementExtension
 plugins {
 	java
 	id("org.springframework.boot") version "3.2.0-SNAPSHOT"  apply false
+	id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.example"
@@ -20,6 +21,15 @@ java {
 	sourceCompatibility = JavaVersion.VERSION_17
 }
 
+// Load test harness, run with ./gradlew loadTest
+val loadTest: SourceSet by sourceSets.creating {
+	compileClasspath += sourceSets.main.get().output + sourceSets.test.get().output
+	runtimeClasspath += sourceSets.main.get().output + sourceSets.test.get().output
+}
+
+configurations[loadTest.implementationConfigurationName].extendsFrom(configurations.testImplementation.get())
+configurations[loadTest.runtimeOnlyConfigurationName].extendsFrom(configurations.testRuntimeOnly.get())
+
 repositories {
 	mavenCentral()
 	maven { url = uri("https://repo.spring.io/milestone") }
@@ -29,10 +39,63 @@ repositories {
 dependencies {
 	implementation("org.springframework.boot:spring-boot-starter-web")
 	implementation("org.springframework.boot:spring-boot-starter-webflux")
+	compileOnly("com.fasterxml.jackson.dataformat:jackson-dataformat-cbor")
+	compileOnly("io.micrometer:micrometer-core")
 
 	testImplementation("org.springframework.boot:spring-boot-starter-test")
+	testImplementation("com.fasterxml.jackson.dataformat:jackson-dataformat-cbor")
+	testImplementation("io.micrometer:micrometer-core")
+
+	// The benchmarks boot the same configurations as the tests
+	"jmhImplementation"(sourceSets.test.get().output)
+	"jmhImplementation"("org.springframework.boot:spring-boot-starter-test")
+	"jmhImplementation"("com.fasterxml.jackson.dataformat:jackson-dataformat-cbor")
 }
 
 tasks.withType<Test> {
 	useJUnitPlatform()
 }
+
+// Runs the WebMVC tests on virtual threads, which requires Java 21, failing on pinning while handling errors
+val virtualThreadTest by tasks.registering(Test::class) {
+	description = "Runs the WebMVC tests with virtual threads and fails when they get pinned while handling errors."
+	group = "verification"
+	testClassesDirs = sourceSets.test.get().output.classesDirs
+	classpath = sourceSets.test.get().runtimeClasspath
+	javaLauncher.set(javaToolchains.launcherFor { languageVersion.set(JavaLanguageVersion.of(21)) })
+	filter {
+		includeTestsMatching("*WebMvc*")
+	}
+	// The error dispatch frames are below the 64 frames that JFR records by default
+	jvmArgs("-XX:FlightRecorderOptions:stackdepth=2048")
+	systemProperty("spring.threads.virtual.enabled", "true")
+	systemProperty("junit.jupiter.extensions.autodetection.enabled", "true")
+}
+
+jmh {
+	// Allocation rate per operation is as important as the latency for the error paths
+	profilers.add("gc")
+	resultFormat.set("JSON")
+	resultsFile.set(layout.buildDirectory.file("reports/jmh/results.json"))
+	// Select benchmarks with -PjmhIncludes=<regexp>, for instance -PjmhIncludes=WebMvcErrorPath
+	providers.gradleProperty("jmhIncludes").orNull?.let { includes.add(it) }
+}
+
+tasks.register<JavaExec>("loadTest") {
+	description = "Drives concurrent load at the error scenarios of each test configuration and reports the latencies as JSON."
+	group = "verification"
+	classpath = loadTest.runtimeClasspath
+	mainClass.set("com.example.demo.LoadTest")
+	args(layout.buildDirectory.file("reports/load-test/results.json").get().asFile.path)
+	// Tune with -PloadTestConcurrency=<workers>, -PloadTestDuration=<seconds>, -PloadTestWarmup=<seconds>
+	// and select configurations with -PloadTestIncludes=<regexp>, for instance -PloadTestIncludes=Webflux.
+	// With -PloadTestVirtualThreads=true the WebMVC configurations also run on virtual threads, using Java 21.
+	if (providers.gradleProperty("loadTestVirtualThreads").orNull == "true") {
+		javaLauncher.set(javaToolchains.launcherFor { languageVersion.set(JavaLanguageVersion.of(21)) })
+	}
+	listOf("concurrency", "duration", "warmup", "includes", "virtualThreads").forEach { option ->
+		providers.gradleProperty("loadTest" + option.replaceFirstChar { it.uppercase() }).orNull?.let {
+			systemProperty("loadTest.$option", it)
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package com.example.demo;
+
+import com.example.demo.problem.ProblemMetricsAutoConfiguration;
+import com.example.demo.problem.ProblemSupportAutoConfiguration;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base class for benchmarks that boot an application on a random port and measure a request on one of its error paths.
+ * <p>
+ * Both the throughput and the sample time are measured, the latter reports the latency percentiles including p99.
+ * The allocated bytes per operation are reported by the GC profiler that is configured in the build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public abstract class AbstractErrorPathBenchmark {
+
+    /**
+     * Excludes the problem support, for the baseline variants that measure a plain Spring Boot application.
+     */
+    protected static final String WITHOUT_PROBLEM_SUPPORT = "spring.autoconfigure.exclude="
+            + ProblemSupportAutoConfiguration.class.getName() + "," + ProblemMetricsAutoConfiguration.class.getName();
+
+    ConfigurableApplicationContext context;
+
+    HttpClient httpClient;
+
+    URI baseUri;
+
+    /**
+     * The application to benchmark, the port is set by this class.
+     */
+    protected abstract SpringApplicationBuilder application();
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = application()
+                .properties("server.port=0")
+                .run();
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUri = URI.create("http://localhost:" + port);
+        httpClient = HttpClient.newHttpClient();
+        createRequests();
+    }
+
+    /**
+     * Creates the requests sent by the benchmark methods, called once the application has started.
+     */
+    protected abstract void createRequests();
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    /**
+     * Creates a request accepting JSON.
+     */
+    protected HttpRequest request(String method, String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .header("Accept", MediaType.APPLICATION_JSON_VALUE)
+                .build();
+    }
+
+    protected byte[] send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+
+}
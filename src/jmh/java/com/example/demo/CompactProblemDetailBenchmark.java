@@ -0,0 +1,76 @@
+package com.example.demo;
+
+import com.example.demo.problem.CompactProblemDetail;
+import com.example.demo.problem.ProblemDetailJsonWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building and writing the problem of the catch-all advice as a plain {@link ProblemDetail} and as a
+ * {@link CompactProblemDetail}. Run it with the {@code gc} profiler, which the build enables, and compare the
+ * {@code gc.alloc.rate.norm} of the benchmarks: the bytes allocated per problem.
+ * <p>
+ * The problems are written by the {@link ProblemDetailJsonWriter} to an output stream that discards them, so only
+ * the allocations of the problem and its serialization are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompactProblemDetailBenchmark {
+
+    private static final CompactProblemDetail.Extensions CATCH_ALL_EXTENSIONS = CompactProblemDetail.Extensions.of("from-catch-all");
+
+    private static final OutputStream DISCARDING = OutputStream.nullOutputStream();
+
+    ProblemDetailJsonWriter jsonWriter = new ProblemDetailJsonWriter(Jackson2ObjectMapperBuilder.json().build());
+
+    @Benchmark
+    public ProblemDetail plainBuild() {
+        return plain();
+    }
+
+    @Benchmark
+    public ProblemDetail compactBuild() {
+        return compact();
+    }
+
+    @Benchmark
+    public void plainBuildAndWrite() throws IOException {
+        jsonWriter.write(plain(), DISCARDING);
+    }
+
+    @Benchmark
+    public void compactBuildAndWrite() throws IOException {
+        jsonWriter.write(compact(), DISCARDING);
+    }
+
+    private static ProblemDetail plain() {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected internal exception");
+        problemDetail.setProperty("from-catch-all", true);
+        return problemDetail;
+    }
+
+    private static ProblemDetail compact() {
+        CompactProblemDetail problemDetail = CompactProblemDetail.forStatusAndDetail(CATCH_ALL_EXTENSIONS, HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected internal exception");
+        problemDetail.setProperty("from-catch-all", true);
+        return problemDetail;
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.example.demo;
+
+import com.example.demo.problem.reactive.ConstantProblem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+
+/**
+ * Compares the catch-all advice of the {@link ResponseEntityExceptionHandlerOrderingTest}, which creates a new
+ * {@code Mono<ResponseEntity>} for every error, with an advice returning the shared publisher of a
+ * {@link ConstantProblem}. The requests accept {@code application/json}, which the
+ * {@link com.example.demo.problem.reactive.ConstantProblemResultHandler} answers with the body kept in the constant
+ * problem, without going through the message writers.
+ * <p>
+ * The {@code success} benchmark is the baseline: an error should not cost measurably more than a successful request.
+ */
+public class ConstantProblemBenchmark extends AbstractErrorPathBenchmark {
+
+    @Param({"mono-per-error", "constant-problem"})
+    String advice;
+
+    HttpRequest success;
+
+    HttpRequest throwsAnException;
+
+    @Override
+    protected SpringApplicationBuilder application() {
+        Class<?> controllerAdvice = (advice.equals("constant-problem") ? ConstantProblemControllerAdvice.class : MonoPerErrorControllerAdvice.class);
+        return new SpringApplicationBuilder(BenchmarkConfig.class, controllerAdvice)
+                .properties(
+                        "spring.main.web-application-type=reactive",
+                        "spring.webflux.problemdetails.enabled=true"
+                );
+    }
+
+    @Override
+    protected void createRequests() {
+        success = request("GET", "/");
+        throwsAnException = request("GET", "/throws-an-exception");
+    }
+
+    @Benchmark
+    public byte[] success() throws IOException, InterruptedException {
+        return send(success);
+    }
+
+    @Benchmark
+    public byte[] throwsAnException() throws IOException, InterruptedException {
+        return send(throwsAnException);
+    }
+
+    @Configuration
+    @EnableAutoConfiguration
+    @Import(ExampleRestController.class)
+    static class BenchmarkConfig {}
+
+    @RestController
+    static class ExampleRestController {
+
+        @GetMapping(path = "/", produces = MediaType.APPLICATION_JSON_VALUE)
+        public String get() {
+            return "{}";
+        }
+
+        @GetMapping(path = "/throws-an-exception", produces = MediaType.APPLICATION_JSON_VALUE)
+        public String throwsAnException() {
+            throw new RuntimeException("Something happened");
+        }
+    }
+
+    @ControllerAdvice
+    static class MonoPerErrorControllerAdvice {
+
+        @ExceptionHandler
+        public Mono<ResponseEntity<Object>> convertToProblem(Exception ex) {
+            return Mono.just(new ResponseEntity<>(unexpected(), HttpStatus.INTERNAL_SERVER_ERROR));
+        }
+    }
+
+    @ControllerAdvice
+    static class ConstantProblemControllerAdvice {
+
+        private static final ConstantProblem UNEXPECTED = ConstantProblem.of(unexpected());
+
+        @ExceptionHandler
+        public Mono<ConstantProblem> convertToProblem(Exception ex) {
+            return UNEXPECTED.mono();
+        }
+    }
+
+    private static ProblemDetail unexpected() {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected internal exception");
+        problemDetail.setProperty("from-catch-all", true);
+        return problemDetail;
+    }
+
+}
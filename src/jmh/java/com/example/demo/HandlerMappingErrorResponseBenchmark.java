@@ -0,0 +1,70 @@
+package com.example.demo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+
+/**
+ * Compares the wrong HTTP method and the unknown path of the {@link ResponseEntityExceptionHandlerOrderingTest} when
+ * the framework throws an exception that the ordered {@code ResponseEntityExceptionHandler} resolves into a problem,
+ * against the handler mappings returning the error response without throwing.
+ * <p>
+ * The static resource handler is not mapped on {@code /**}, so the unknown path is not handled by the resource
+ * handler but by the {@code DispatcherServlet} or {@code DispatcherHandler}.
+ */
+public class HandlerMappingErrorResponseBenchmark extends AbstractErrorPathBenchmark {
+
+    @Param({"servlet", "reactive"})
+    String stack;
+
+    @Param({"exception", "error-response"})
+    String signal;
+
+    HttpRequest unknownPath;
+
+    HttpRequest wrongHttpMethod;
+
+    @Override
+    protected SpringApplicationBuilder application() {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(ResponseEntityExceptionHandlerOrderingTest.TestConfig.class);
+        if (stack.equals("servlet")) {
+            builder.sources(
+                    ResponseEntityExceptionHandlerOrderingTest.WebMvcTests.CatchAllWebMvcControllerAdvice.class,
+                    ResponseEntityExceptionHandlerOrderingTest.WebMvcTests.OrderedProblemDetailsExceptionHandler.class
+            );
+        } else {
+            builder.sources(
+                    ResponseEntityExceptionHandlerOrderingTest.WebfluxTests.CatchAllWebfluxControllerAdvice.class,
+                    ResponseEntityExceptionHandlerOrderingTest.WebfluxTests.OrderedProblemDetailsExceptionHandler.class
+            );
+        }
+        return builder.properties(
+                "spring.main.web-application-type=" + stack,
+                "spring.mvc.problemdetails.enabled=true",
+                "spring.webflux.problemdetails.enabled=true",
+                "spring.mvc.static-path-pattern=/static/**",
+                "spring.webflux.static-path-pattern=/static/**",
+                "problem-support.handler-mapping-error-responses.enabled=" + signal.equals("error-response")
+        );
+    }
+
+    @Override
+    protected void createRequests() {
+        unknownPath = request("GET", "/non-existing");
+        wrongHttpMethod = request("DELETE", "/");
+    }
+
+    @Benchmark
+    public byte[] unknownPath() throws IOException, InterruptedException {
+        return send(unknownPath);
+    }
+
+    @Benchmark
+    public byte[] wrongHttpMethod() throws IOException, InterruptedException {
+        return send(wrongHttpMethod);
+    }
+
+}
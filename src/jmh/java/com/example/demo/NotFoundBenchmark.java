@@ -0,0 +1,57 @@
+package com.example.demo;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+
+/**
+ * Compares a {@code sendError(404)} that is rendered by the {@code BasicErrorController} in the ERROR dispatch of the
+ * container, against the {@code NotFoundProblemFilter} fast path that writes the problem in the request dispatch.
+ * <p>
+ * The 404 is sent by a controller: the resource handler throws a {@code NoResourceFoundException}, which the
+ * {@code ResponseEntityExceptionHandler} renders the same way in both variants.
+ */
+public class NotFoundBenchmark extends AbstractErrorPathBenchmark {
+
+    @Param({"send-error", "fast-path"})
+    String path;
+
+    HttpRequest notFound;
+
+    @Override
+    protected SpringApplicationBuilder application() {
+        return new SpringApplicationBuilder(NotFoundTest.TestConfig.class, SendErrorController.class)
+                .properties(
+                        "spring.main.web-application-type=servlet",
+                        "spring.mvc.problemdetails.enabled=true",
+                        "problem-support.servlet.not-found-fast-path.enabled=" + path.equals("fast-path")
+                );
+    }
+
+    @Override
+    protected void createRequests() {
+        notFound = request("GET", "/send-error");
+    }
+
+    @Benchmark
+    public byte[] notFound() throws IOException, InterruptedException {
+        return send(notFound);
+    }
+
+    @RestController
+    static class SendErrorController {
+
+        @GetMapping("/send-error")
+        void sendError(HttpServletResponse response) throws IOException {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+        }
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.example.demo;
+
+import com.example.demo.problem.ProblemBodyCache;
+import com.example.demo.problem.ProblemDetailJsonWriter;
+import com.example.demo.problem.reactive.ProblemDetailHttpMessageWriter;
+import com.example.demo.problem.servlet.ProblemDetailHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares writing a {@link ProblemDetail} through the generic Jackson converter and encoder with the
+ * {@link ProblemDetailJsonWriter} and the problem converter and writer that use it.
+ * <p>
+ * The {@code structured} problem has a list property, so it can not be served from the {@link ProblemBodyCache} and is
+ * always streamed by the problem converter and writer. The {@code streaming} benchmarks use the
+ * {@link ProblemDetailJsonWriter} directly, without the cache, so they show what it costs for any problem.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProblemDetailWriterBenchmark {
+
+    @Param({"constant", "structured"})
+    public String problem;
+
+    ProblemDetail problemDetail;
+
+    MappingJackson2HttpMessageConverter jacksonConverter;
+
+    ProblemDetailHttpMessageConverter problemConverter;
+
+    Jackson2JsonEncoder jacksonEncoder;
+
+    ProblemDetailHttpMessageWriter problemWriter;
+
+    ProblemDetailJsonWriter jsonWriter;
+
+    NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+
+    @Setup
+    public void setup() {
+        problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected internal exception");
+        problemDetail.setInstance(URI.create("/throws-an-exception"));
+        problemDetail.setProperty("from-catch-all", true);
+        if (problem.equals("structured")) {
+            problemDetail.setProperty("errors", List.of(Map.of("field", "name", "message", "must not be blank")));
+        }
+
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        jsonWriter = new ProblemDetailJsonWriter(objectMapper);
+
+        jacksonConverter = new MappingJackson2HttpMessageConverter(objectMapper);
+        problemConverter = new ProblemDetailHttpMessageConverter(new ProblemBodyCache(jsonWriter, 16), jsonWriter);
+
+        jacksonEncoder = new Jackson2JsonEncoder(objectMapper, MediaType.APPLICATION_PROBLEM_JSON);
+        problemWriter = new ProblemDetailHttpMessageWriter(new ProblemBodyCache(jsonWriter, 16), jsonWriter);
+    }
+
+    //******************************************************************************************************************
+    //** WebMVC ********************************************************************************************************
+    //******************************************************************************************************************
+
+    @Benchmark
+    public MockHttpOutputMessage servletJacksonConverter() throws IOException {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        jacksonConverter.write(problemDetail, MediaType.APPLICATION_PROBLEM_JSON, message);
+        return message;
+    }
+
+    @Benchmark
+    public MockHttpOutputMessage servletProblemConverter() throws IOException {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        problemConverter.write(problemDetail, MediaType.APPLICATION_PROBLEM_JSON, message);
+        return message;
+    }
+
+    @Benchmark
+    public MockHttpOutputMessage servletStreaming() throws IOException {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        jsonWriter.write(problemDetail, message.getBody());
+        return message;
+    }
+
+    //******************************************************************************************************************
+    //** Webflux *******************************************************************************************************
+    //******************************************************************************************************************
+
+    @Benchmark
+    public int reactiveJacksonEncoder() {
+        return release(jacksonEncoder.encodeValue(problemDetail, bufferFactory,
+                ResolvableType.forClass(ProblemDetail.class), MediaType.APPLICATION_PROBLEM_JSON, null));
+    }
+
+    @Benchmark
+    public MockServerHttpResponse reactiveProblemWriter() {
+        return write(problemWriter);
+    }
+
+    @Benchmark
+    public int reactiveStreaming() {
+        return release(jsonWriter.write(problemDetail, bufferFactory));
+    }
+
+    private static int release(DataBuffer buffer) {
+        int size = buffer.readableByteCount();
+        DataBufferUtils.release(buffer);
+        return size;
+    }
+
+    private MockServerHttpResponse write(ProblemDetailHttpMessageWriter writer) {
+        MockServerHttpResponse response = new MockServerHttpResponse(bufferFactory);
+        writer.write(Mono.just(problemDetail), ResolvableType.forClass(ProblemDetail.class),
+                MediaType.APPLICATION_PROBLEM_JSON, response, Map.of()).block();
+        response.getBody().doOnNext(DataBufferUtils::release).blockLast();
+        return response;
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.example.demo;
+
+import com.example.demo.problem.ProblemDetailJsonWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.ProblemDetailJacksonMixin;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@code application/problem+json} with {@code application/problem+cbor}: the time to stream a problem with
+ * the {@link ProblemDetailJsonWriter}, and the time for a client to decode it into a {@link ProblemDetail} with
+ * Jackson. The {@code gc} profiler, which the build enables, reports the bytes allocated per operation. The encoded
+ * sizes are compared by {@code ProblemDetailJsonWriterTest}, so the benchmark writes nothing to the output.
+ * <p>
+ * The {@code minimal} problem is the 404 of the fast path, the {@code extended} one carries the extension properties
+ * of a validation error.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProblemFormatBenchmark {
+
+    @Param({"json", "cbor"})
+    String format;
+
+    @Param({"minimal", "extended"})
+    String problem;
+
+    ObjectMapper objectMapper;
+
+    ProblemDetailJsonWriter problemWriter;
+
+    ProblemDetail problemDetail;
+
+    byte[] encoded;
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream(512);
+
+    @Setup
+    public void setup() throws IOException {
+        Jackson2ObjectMapperBuilder builder = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor();
+            default -> throw new IllegalArgumentException(format);
+        };
+        objectMapper = builder.mixIn(ProblemDetail.class, ProblemDetailJacksonMixin.class).build();
+        problemWriter = new ProblemDetailJsonWriter(objectMapper);
+        problemDetail = switch (problem) {
+            case "minimal" -> minimal();
+            case "extended" -> extended();
+            default -> throw new IllegalArgumentException(problem);
+        };
+        encoded = encode();
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        outputStream.reset();
+        problemWriter.write(problemDetail, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    @Benchmark
+    public ProblemDetail decode() throws IOException {
+        return objectMapper.readValue(encoded, ProblemDetail.class);
+    }
+
+    private static ProblemDetail minimal() {
+        ProblemDetail problemDetail = ProblemDetail.forStatus(HttpStatus.NOT_FOUND);
+        problemDetail.setInstance(URI.create("/api/orders/42"));
+        return problemDetail;
+    }
+
+    private static ProblemDetail extended() {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "Invalid request content.");
+        problemDetail.setType(URI.create("https://example.com/problems/validation"));
+        problemDetail.setInstance(URI.create("/api/orders"));
+        problemDetail.setProperty("errorCount", 2);
+        problemDetail.setProperty("retryable", false);
+        problemDetail.setProperty("errors", List.of("quantity must be greater than 0", "customerId must not be null"));
+        return problemDetail;
+    }
+
+}
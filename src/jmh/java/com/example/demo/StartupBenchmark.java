@@ -0,0 +1,129 @@
+package com.example.demo;
+
+import com.example.demo.ResponseEntityExceptionHandlerOrderingTest.WebMvcTests.CatchAllWebMvcControllerAdvice;
+import com.example.demo.ResponseEntityExceptionHandlerOrderingTest.WebfluxTests.CatchAllWebfluxControllerAdvice;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cold start of the test configurations, with and without the lazy error infrastructure: the time to
+ * refresh the application context, and the latency of the first error once it has started.
+ * <p>
+ * Every iteration boots a fresh application, several forks make sure class loading is measured as well.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(3)
+public class StartupBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Configuration {
+
+        @Param({"servlet", "reactive"})
+        String stack;
+
+        /**
+         * The {@link NotFoundTest} or the {@link ResponseEntityExceptionHandlerOrderingTest} configuration.
+         */
+        @Param({"not-found", "exception-handler-ordering"})
+        String test;
+
+        @Param({"true", "false"})
+        String lazyErrorInfrastructure;
+
+        SpringApplicationBuilder application() {
+            boolean servlet = stack.equals("servlet");
+            SpringApplicationBuilder builder;
+            if (test.equals("not-found")) {
+                builder = new SpringApplicationBuilder(NotFoundTest.TestConfig.class);
+            } else {
+                builder = new SpringApplicationBuilder(
+                        ResponseEntityExceptionHandlerOrderingTest.TestConfig.class,
+                        (servlet ? CatchAllWebMvcControllerAdvice.class : CatchAllWebfluxControllerAdvice.class)
+                );
+            }
+            return builder.properties(
+                    "server.port=0",
+                    "spring.main.web-application-type=" + stack,
+                    (servlet ? "spring.mvc" : "spring.webflux") + ".problemdetails.enabled=true",
+                    "problem-support.lazy-error-infrastructure.enabled=" + lazyErrorInfrastructure
+            );
+        }
+
+        String errorPath() {
+            return (test.equals("not-found") ? "/non-existing" : "/throws-an-exception");
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Application {
+
+        ConfigurableApplicationContext context;
+
+        @TearDown(Level.Iteration)
+        public void stop() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class StartedApplication {
+
+        ConfigurableApplicationContext context;
+
+        HttpClient httpClient;
+
+        HttpRequest firstError;
+
+        @Setup(Level.Iteration)
+        public void start(Configuration configuration) {
+            context = configuration.application().run();
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            httpClient = HttpClient.newHttpClient();
+            firstError = HttpRequest.newBuilder(URI.create("http://localhost:" + port + configuration.errorPath()))
+                    .header("Accept", MediaType.APPLICATION_JSON_VALUE)
+                    .build();
+        }
+
+        @TearDown(Level.Iteration)
+        public void stop() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext contextRefresh(Configuration configuration, Application application) {
+        application.context = configuration.application().run();
+        return application.context;
+    }
+
+    @Benchmark
+    public byte[] firstError(StartedApplication application) throws IOException, InterruptedException {
+        return application.httpClient.send(application.firstError, HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.example.demo;
+
+import com.example.demo.problem.ProblemException;
+import com.example.demo.problem.ProblemStackTraces;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.ErrorResponseException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+
+/**
+ * Compares the {@code /throws-a-problem} scenario of the {@link ResponseEntityExceptionHandlerOrderingTest} when
+ * throwing an {@link ErrorResponseException}, against throwing a {@link ProblemException} that skips capturing its
+ * stack trace for client errors.
+ */
+public class ThrowsAProblemBenchmark extends AbstractErrorPathBenchmark {
+
+    @Param({"servlet", "reactive"})
+    String stack;
+
+    @Param({"error-response-exception", "stackless-problem-exception"})
+    String exception;
+
+    HttpRequest throwsAProblem;
+
+    @Override
+    protected SpringApplicationBuilder application() {
+        String problemDetailsEnabled = (stack.equals("servlet") ? "spring.mvc" : "spring.webflux") + ".problemdetails.enabled=true";
+        return new SpringApplicationBuilder(BenchmarkConfig.class)
+                .properties(
+                        "spring.main.web-application-type=" + stack,
+                        problemDetailsEnabled,
+                        "problem-support.stackless.series=client-error",
+                        "benchmark.exception=" + exception
+                );
+    }
+
+    @Override
+    protected void createRequests() {
+        throwsAProblem = request("GET", "/throws-a-problem");
+    }
+
+    @Benchmark
+    public byte[] throwsAProblem() throws IOException, InterruptedException {
+        return send(throwsAProblem);
+    }
+
+    @Configuration
+    @EnableAutoConfiguration
+    @Import(ThrowsAProblemController.class)
+    static class BenchmarkConfig {}
+
+    @RestController
+    static class ThrowsAProblemController {
+
+        private final boolean stackless;
+
+        private final ProblemStackTraces stackTraces;
+
+        ThrowsAProblemController(@Value("${benchmark.exception}") String exception, ProblemStackTraces stackTraces) {
+            this.stackless = exception.equals("stackless-problem-exception");
+            this.stackTraces = stackTraces;
+        }
+
+        @GetMapping(path = "/throws-a-problem", produces = MediaType.APPLICATION_JSON_VALUE)
+        public String throwsAJsonProblem() {
+            RuntimeException cause = new RuntimeException("a problem");
+            if (stackless) {
+                throw new ProblemException(stackTraces, HttpStatus.BAD_REQUEST, cause);
+            }
+            throw new ErrorResponseException(HttpStatus.BAD_REQUEST, cause);
+        }
+    }
+
+}
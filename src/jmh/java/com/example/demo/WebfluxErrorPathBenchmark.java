@@ -0,0 +1,86 @@
+package com.example.demo;
+
+import com.example.demo.ResponseEntityExceptionHandlerOrderingTest.WebfluxTests.CatchAllWebfluxControllerAdvice;
+import com.example.demo.ResponseEntityExceptionHandlerOrderingTest.WebfluxTests.OrderedProblemDetailsExceptionHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.springframework.boot.autoconfigure.web.reactive.error.DefaultErrorWebExceptionHandler;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.web.reactive.DispatcherHandler;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+
+/**
+ * Benchmarks the Webflux error scenarios of the {@link NotFoundTest} and the
+ * {@link ResponseEntityExceptionHandlerOrderingTest}, with the default problem details exception handler and with
+ * the {@link OrderedProblemDetailsExceptionHandler} in front of the catch-all advice.
+ * <p>
+ * The {@code default} variant is the baseline: it excludes the problem support, so it measures plain Spring Boot.
+ * <p>
+ * The unknown path is either handled by the {@link DefaultErrorWebExceptionHandler}, when the static resource handler
+ * is mapped on {@code /**}, or by the {@link DispatcherHandler#handleDispatchError} method when it is not.
+ */
+public class WebfluxErrorPathBenchmark extends AbstractErrorPathBenchmark {
+
+    @Param({"default", "ordered"})
+    String exceptionHandler;
+
+    @Param({"error-web-exception-handler", "dispatch-error"})
+    String unknownPathHandler;
+
+    HttpRequest unknownPath;
+
+    HttpRequest wrongHttpMethod;
+
+    HttpRequest thrownErrorResponse;
+
+    HttpRequest thrownException;
+
+    @Override
+    protected SpringApplicationBuilder application() {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(
+                ResponseEntityExceptionHandlerOrderingTest.TestConfig.class,
+                CatchAllWebfluxControllerAdvice.class
+        );
+        if (exceptionHandler.equals("ordered")) {
+            builder.sources(OrderedProblemDetailsExceptionHandler.class);
+        } else {
+            builder.properties(WITHOUT_PROBLEM_SUPPORT);
+        }
+        return builder.properties(
+                "spring.main.web-application-type=reactive",
+                "spring.webflux.problemdetails.enabled=true",
+                "spring.webflux.static-path-pattern=" + (unknownPathHandler.equals("dispatch-error") ? "/static/**" : "/**")
+        );
+    }
+
+    @Override
+    protected void createRequests() {
+        unknownPath = request("GET", "/non-existing");
+        wrongHttpMethod = request("DELETE", "/");
+        thrownErrorResponse = request("GET", "/throws-a-problem");
+        thrownException = request("GET", "/throws-an-exception");
+    }
+
+    @Benchmark
+    public byte[] unknownPath() throws IOException, InterruptedException {
+        return send(unknownPath);
+    }
+
+    @Benchmark
+    public byte[] wrongHttpMethod() throws IOException, InterruptedException {
+        return send(wrongHttpMethod);
+    }
+
+    @Benchmark
+    public byte[] thrownErrorResponse() throws IOException, InterruptedException {
+        return send(thrownErrorResponse);
+    }
+
+    @Benchmark
+    public byte[] thrownException() throws IOException, InterruptedException {
+        return send(thrownException);
+    }
+
+}
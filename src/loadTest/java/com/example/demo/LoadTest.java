@@ -0,0 +1,229 @@
+package com.example.demo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+/**
+ * Boots each {@link LoadTestConfiguration} on a random port, drives concurrent load at each of the error scenarios
+ * and writes the throughput and latency percentiles per configuration and scenario as JSON.
+ * <p>
+ * Every scenario is first warmed up and then measured for a fixed duration, by a number of workers that each send
+ * their next request as soon as the previous one completed. Run it with {@code ./gradlew loadTest}, which takes the
+ * following options:
+ * <ul>
+ *     <li>{@code -PloadTestConcurrency}: number of concurrent workers, 16 by default</li>
+ *     <li>{@code -PloadTestDuration}: seconds to measure each scenario, 10 by default</li>
+ *     <li>{@code -PloadTestWarmup}: seconds to warm up each scenario, 3 by default</li>
+ *     <li>{@code -PloadTestIncludes}: regular expression selecting the configurations by name, all by default</li>
+ *     <li>{@code -PloadTestVirtualThreads}: whether to also run the WebMVC configurations on virtual threads, to
+ *     compare them with the platform threads of the Tomcat pool</li>
+ * </ul>
+ */
+public class LoadTest {
+
+    static final List<Scenario> SCENARIOS = List.of(
+            new Scenario("GET", "/non-existing"),
+            new Scenario("DELETE", "/"),
+            new Scenario("GET", "/throws-a-problem"),
+            new Scenario("GET", "/throws-an-exception")
+    );
+
+    private final int concurrency;
+
+    private final Duration duration;
+
+    private final Duration warmup;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    LoadTest(int concurrency, Duration duration, Duration warmup) {
+        this.concurrency = concurrency;
+        this.duration = duration;
+        this.warmup = warmup;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path report = Path.of(args.length > 0 ? args[0] : "build/reports/load-test/results.json");
+        LoadTest loadTest = new LoadTest(
+                Integer.getInteger("loadTest.concurrency", 16),
+                Duration.ofSeconds(Integer.getInteger("loadTest.duration", 10)),
+                Duration.ofSeconds(Integer.getInteger("loadTest.warmup", 3))
+        );
+        Pattern includes = Pattern.compile(System.getProperty("loadTest.includes", ".*"));
+
+        List<LoadTestConfiguration> configurations = new ArrayList<>(LoadTestConfiguration.all());
+        if (Boolean.getBoolean("loadTest.virtualThreads")) {
+            configurations.addAll(LoadTestConfiguration.onVirtualThreads(configurations));
+        }
+
+        List<Result> results = new ArrayList<>();
+        for (LoadTestConfiguration configuration : configurations) {
+            if (includes.matcher(configuration.name()).find()) {
+                results.addAll(loadTest.run(configuration));
+            }
+        }
+
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(report.toFile(), results);
+        System.out.println("Results written to " + report.toAbsolutePath());
+    }
+
+    List<Result> run(LoadTestConfiguration configuration) throws Exception {
+        List<Result> results = new ArrayList<>();
+        try (ConfigurableApplicationContext context = configuration.application().properties("server.port=0").run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI baseUri = URI.create("http://localhost:" + port);
+
+            for (Scenario scenario : SCENARIOS) {
+                HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(scenario.path()))
+                        .method(scenario.method(), HttpRequest.BodyPublishers.noBody())
+                        .header("Accept", configuration.accept())
+                        .build();
+
+                drive(request, warmup);
+                Result result = Result.of(configuration.name(), scenario.toString(), concurrency, duration, drive(request, duration));
+                System.out.printf("%s %s: %.0f req/s, p50 %.3f ms, p99 %.3f ms, p999 %.3f ms%n", result.configuration(),
+                        result.scenario(), result.throughput(), result.latency().p50(), result.latency().p99(), result.latency().p999());
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    private List<Worker> drive(HttpRequest request, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Worker> workers = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                Worker worker = new Worker(request, deadline);
+                workers.add(worker);
+                futures.add(executor.submit(worker));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return workers;
+    }
+
+    record Scenario(String method, String path) {
+
+        @Override
+        public String toString() {
+            return method + " " + path;
+        }
+    }
+
+    /**
+     * The outcome of one scenario, latencies are in milliseconds.
+     */
+    record Result(String configuration, String scenario, int concurrency, long requests, long failures,
+                  Map<Integer, Long> statuses, double throughput, Latency latency) {
+
+        static Result of(String configuration, String scenario, int concurrency, Duration duration, List<Worker> workers) {
+            long[] latencies = workers.stream()
+                    .flatMapToLong(worker -> Arrays.stream(worker.latencies, 0, worker.count))
+                    .sorted()
+                    .toArray();
+            Map<Integer, Long> statuses = new TreeMap<>();
+            long failures = 0;
+            for (Worker worker : workers) {
+                worker.statuses.forEach((status, count) -> statuses.merge(status, count, Long::sum));
+                failures += worker.failures;
+            }
+
+            double throughput = latencies.length / (duration.toNanos() / 1e9);
+            return new Result(configuration, scenario, concurrency, latencies.length, failures, statuses, throughput, Latency.of(latencies));
+        }
+    }
+
+    record Latency(double p50, double p99, double p999, double max) {
+
+        static Latency of(long[] sortedNanos) {
+            return new Latency(percentile(sortedNanos, 0.50), percentile(sortedNanos, 0.99), percentile(sortedNanos, 0.999),
+                    percentile(sortedNanos, 1.0));
+        }
+
+        private static double percentile(long[] sortedNanos, double percentile) {
+            if (sortedNanos.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+            return sortedNanos[Math.max(index, 0)] / 1e6;
+        }
+    }
+
+    /**
+     * Sends the request in a loop until the deadline, recording the latency of every completed request.
+     */
+    private final class Worker implements Runnable {
+
+        private final HttpRequest request;
+
+        private final long deadline;
+
+        private final Map<Integer, Long> statuses = new TreeMap<>();
+
+        private long[] latencies = new long[1024];
+
+        private int count;
+
+        private long failures;
+
+        Worker(HttpRequest request, long deadline) {
+            this.request = request;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void run() {
+            while (System.nanoTime() < deadline) {
+                long start = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                    record(System.nanoTime() - start);
+                    statuses.merge(response.statusCode(), 1L, Long::sum);
+                } catch (IOException ex) {
+                    failures++;
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        private void record(long latency) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.example.demo;
+
+import com.example.demo.ResponseEntityExceptionHandlerOrderingTest.WebMvcTests.CatchAllWebMvcControllerAdvice;
+import com.example.demo.ResponseEntityExceptionHandlerOrderingTest.WebfluxTests.CatchAllWebfluxControllerAdvice;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A configuration of one of the tests to put under load: the sources and properties of its application context, and
+ * the {@code Accept} header of its requests.
+ */
+record LoadTestConfiguration(String name, List<Class<?>> sources, List<String> properties, String accept) {
+
+    private static final List<String> SERVLET = List.of(
+            "spring.main.web-application-type=servlet",
+            "spring.mvc.problemdetails.enabled=true"
+    );
+
+    private static final List<String> REACTIVE = List.of(
+            "spring.main.web-application-type=reactive",
+            "spring.webflux.problemdetails.enabled=true"
+    );
+
+    /**
+     * The configurations of the {@link NotFoundTest}, {@link NotFoundWhenHTMLAcceptHeaderTest} and
+     * {@link ResponseEntityExceptionHandlerOrderingTest}, named after their nested test classes.
+     */
+    static List<LoadTestConfiguration> all() {
+        List<LoadTestConfiguration> configurations = new ArrayList<>();
+
+        configurations.add(of("NotFoundTest.WebMvcTests.DefaultConfig", NotFoundTest.TestConfig.class, SERVLET));
+        configurations.add(of("NotFoundTest.WebMvcTests.WithoutResourceHandlerOnRoot", NotFoundTest.TestConfig.class, SERVLET,
+                "spring.mvc.static-path-pattern=/static/**"));
+        configurations.add(of("NotFoundTest.WebfluxTests.DefaultConfig", NotFoundTest.TestConfig.class, REACTIVE));
+        configurations.add(of("NotFoundTest.WebfluxTests.WithoutResourceHandlerOnRoot", NotFoundTest.TestConfig.class, REACTIVE,
+                "spring.webflux.static-path-pattern=/static/**"));
+
+        configurations.add(of("NotFoundWhenHTMLAcceptHeaderTest.WebMvcTests.DefaultConfig", NotFoundWhenHTMLAcceptHeaderTest.TestConfig.class, SERVLET)
+                .acceptingHtml());
+        configurations.add(of("NotFoundWhenHTMLAcceptHeaderTest.WebMvcTests.WithoutResourceHandlerOnRoot", NotFoundWhenHTMLAcceptHeaderTest.TestConfig.class, SERVLET,
+                "spring.mvc.static-path-pattern=/static/**").acceptingHtml());
+        configurations.add(of("NotFoundWhenHTMLAcceptHeaderTest.WebMvcTests.WithPreRenderedErrorPage", NotFoundWhenHTMLAcceptHeaderTest.TestConfig.class, SERVLET,
+                "problem-support.error-page.enabled=true").acceptingHtml());
+        configurations.add(of("NotFoundWhenHTMLAcceptHeaderTest.WebfluxTests.DefaultConfig", NotFoundWhenHTMLAcceptHeaderTest.TestConfig.class, REACTIVE)
+                .acceptingHtml());
+        configurations.add(of("NotFoundWhenHTMLAcceptHeaderTest.WebfluxTests.WithoutResourceHandlerOnRoot", NotFoundWhenHTMLAcceptHeaderTest.TestConfig.class, REACTIVE,
+                "spring.webflux.static-path-pattern=/static/**").acceptingHtml());
+        configurations.add(of("NotFoundWhenHTMLAcceptHeaderTest.WebfluxTests.WithPreRenderedErrorPage", NotFoundWhenHTMLAcceptHeaderTest.TestConfig.class, REACTIVE,
+                "problem-support.error-page.enabled=true").acceptingHtml());
+
+        configurations.add(new LoadTestConfiguration("ResponseEntityExceptionHandlerOrderingTest.WebMvcTests.WebMvcWithProblemDetailsExceptionHandler",
+                List.of(ResponseEntityExceptionHandlerOrderingTest.TestConfig.class, CatchAllWebMvcControllerAdvice.class),
+                SERVLET, MediaType.APPLICATION_JSON_VALUE));
+        configurations.add(new LoadTestConfiguration("ResponseEntityExceptionHandlerOrderingTest.WebMvcTests.WebMvcWithCustomOrderedProblemDetailsExceptionHandler",
+                List.of(ResponseEntityExceptionHandlerOrderingTest.TestConfig.class, CatchAllWebMvcControllerAdvice.class,
+                        ResponseEntityExceptionHandlerOrderingTest.WebMvcTests.OrderedProblemDetailsExceptionHandler.class),
+                SERVLET, MediaType.APPLICATION_JSON_VALUE));
+        configurations.add(new LoadTestConfiguration("ResponseEntityExceptionHandlerOrderingTest.WebfluxTests.WebfluxWithProblemDetailsExceptionHandler",
+                List.of(ResponseEntityExceptionHandlerOrderingTest.TestConfig.class, CatchAllWebfluxControllerAdvice.class),
+                REACTIVE, MediaType.APPLICATION_JSON_VALUE));
+        configurations.add(new LoadTestConfiguration("ResponseEntityExceptionHandlerOrderingTest.WebfluxTests.WebfluxWithCustomOrderedProblemDetailsExceptionHandler",
+                List.of(ResponseEntityExceptionHandlerOrderingTest.TestConfig.class, CatchAllWebfluxControllerAdvice.class,
+                        ResponseEntityExceptionHandlerOrderingTest.WebfluxTests.OrderedProblemDetailsExceptionHandler.class),
+                REACTIVE, MediaType.APPLICATION_JSON_VALUE));
+
+        return configurations;
+    }
+
+    /**
+     * Returns the WebMVC configurations running on virtual threads instead of the platform threads of the Tomcat
+     * pool, which requires Java 21.
+     */
+    static List<LoadTestConfiguration> onVirtualThreads(List<LoadTestConfiguration> configurations) {
+        return configurations.stream()
+                .filter(configuration -> configuration.properties().containsAll(SERVLET))
+                .map(configuration -> {
+                    List<String> properties = new ArrayList<>(configuration.properties());
+                    properties.add("spring.threads.virtual.enabled=true");
+                    return new LoadTestConfiguration(configuration.name() + "[virtual-threads]", configuration.sources(),
+                            properties, configuration.accept());
+                })
+                .toList();
+    }
+
+    SpringApplicationBuilder application() {
+        return new SpringApplicationBuilder(sources.toArray(Class<?>[]::new))
+                .properties(properties.toArray(String[]::new));
+    }
+
+    private LoadTestConfiguration acceptingHtml() {
+        return new LoadTestConfiguration(name, sources, properties, MediaType.TEXT_HTML_VALUE);
+    }
+
+    private static LoadTestConfiguration of(String name, Class<?> source, List<String> stack, String... properties) {
+        List<String> allProperties = new ArrayList<>(stack);
+        allProperties.addAll(List.of(properties));
+        return new LoadTestConfiguration(name, List.of(source), allProperties, MediaType.APPLICATION_JSON_VALUE);
+    }
+
+}
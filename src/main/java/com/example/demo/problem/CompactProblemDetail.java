@@ -0,0 +1,189 @@
+package com.example.demo.problem;
+
+import com.fasterxml.jackson.core.io.SerializedString;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.Map;
+
+/**
+ * {@link ProblemDetail} that stores the extension properties declared up front in fixed slots, instead of a map.
+ * <p>
+ * Setting a single property on a plain {@link ProblemDetail} allocates a {@code LinkedHashMap}, which Jackson then
+ * serializes through its generic map path. The properties of this class are declared once in an {@link Extensions}
+ * instance, so setting one only stores its value in an array, and the {@link ProblemDetailJsonWriter} writes them
+ * with pre-encoded names. Properties that were not declared are stored in the map as usual.
+ * <p>
+ * The properties map is only built when {@link #getProperties()} is called, for instance by an object mapper. The
+ * slot values are then moved to the map, which is used from there on, so changes made through the map are seen as
+ * for any other problem detail. Declared properties come before the others in the map.
+ */
+public class CompactProblemDetail extends ProblemDetail {
+
+    private final Extensions extensions;
+
+    private final Object[] values;
+
+    /**
+     * Bit per slot that holds a value, as a slot may hold {@code null}.
+     */
+    private long present;
+
+    private boolean materialized;
+
+    protected CompactProblemDetail(Extensions extensions, int status) {
+        super(status);
+        this.extensions = extensions;
+        this.values = new Object[extensions.names.length];
+    }
+
+    public static CompactProblemDetail forStatus(Extensions extensions, HttpStatusCode status) {
+        return new CompactProblemDetail(extensions, status.value());
+    }
+
+    public static CompactProblemDetail forStatusAndDetail(Extensions extensions, HttpStatusCode status, @Nullable String detail) {
+        CompactProblemDetail problemDetail = forStatus(extensions, status);
+        problemDetail.setDetail(detail);
+        return problemDetail;
+    }
+
+    @Override
+    public void setProperty(String name, @Nullable Object value) {
+        int slot = (materialized ? -1 : extensions.indexOf(name));
+        if (slot < 0) {
+            super.setProperty(name, value);
+            return;
+        }
+        values[slot] = value;
+        present |= (1L << slot);
+    }
+
+    /**
+     * Returns the properties, moving the values of the slots into the map first.
+     */
+    @Override
+    @Nullable
+    public Map<String, Object> getProperties() {
+        if (!materialized) {
+            materialize();
+        }
+        return super.getProperties();
+    }
+
+    private void materialize() {
+        Map<String, Object> undeclared = super.getProperties();
+        materialized = true;
+        if (present == 0) {
+            return;
+        }
+
+        Object[] undeclaredEntries = (undeclared != null ? undeclared.entrySet().toArray() : new Object[0]);
+        if (undeclared != null) {
+            undeclared.clear();
+        }
+        for (int slot = 0; slot < values.length; slot++) {
+            if ((present & (1L << slot)) != 0) {
+                super.setProperty(extensions.names[slot], values[slot]);
+                values[slot] = null;
+            }
+        }
+        present = 0;
+        for (Object entry : undeclaredEntries) {
+            Map.Entry<?, ?> property = (Map.Entry<?, ?>) entry;
+            super.setProperty((String) property.getKey(), property.getValue());
+        }
+    }
+
+    Extensions getExtensions() {
+        return extensions;
+    }
+
+    /**
+     * Returns whether the given slot holds a value.
+     */
+    boolean hasValue(int slot) {
+        return (present & (1L << slot)) != 0;
+    }
+
+    @Nullable
+    Object getValue(int slot) {
+        return values[slot];
+    }
+
+    /**
+     * Returns the properties that were not declared, without building the map of all properties.
+     */
+    @Nullable
+    Map<String, Object> getUndeclaredProperties() {
+        return super.getProperties();
+    }
+
+    /**
+     * Compares the properties map, like for any other problem detail.
+     */
+    @Override
+    public boolean equals(@Nullable Object other) {
+        getProperties();
+        if (other instanceof CompactProblemDetail otherCompact) {
+            otherCompact.getProperties();
+        }
+        return super.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+        getProperties();
+        return super.hashCode();
+    }
+
+    /**
+     * The extension properties of a kind of problem, declared once and shared by all its instances.
+     */
+    public static final class Extensions {
+
+        private static final int MAX_SLOTS = Long.SIZE;
+
+        private final String[] names;
+
+        private final SerializedString[] encodedNames;
+
+        private Extensions(String[] names) {
+            this.names = names;
+            this.encodedNames = new SerializedString[names.length];
+            for (int i = 0; i < names.length; i++) {
+                this.encodedNames[i] = new SerializedString(names[i]);
+            }
+        }
+
+        public static Extensions of(String... names) {
+            Assert.isTrue(names.length <= MAX_SLOTS, () -> "At most " + MAX_SLOTS + " extension properties can be declared");
+            for (int i = 0; i < names.length; i++) {
+                String name = names[i];
+                for (int j = 0; j < i; j++) {
+                    Assert.isTrue(!name.equals(names[j]), () -> "Extension property '" + name + "' is declared twice");
+                }
+            }
+            return new Extensions(names.clone());
+        }
+
+        int size() {
+            return names.length;
+        }
+
+        int indexOf(String name) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        SerializedString getEncodedName(int slot) {
+            return encodedNames[slot];
+        }
+    }
+
+}
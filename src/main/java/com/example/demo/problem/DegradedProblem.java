@@ -0,0 +1,50 @@
+package com.example.demo.problem;
+
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
+
+import java.time.Duration;
+
+/**
+ * The minimal problem that replaces the server errors of the catch-all {@code @ExceptionHandler} methods during an
+ * {@link ErrorStorm}, together with the {@code Retry-After} header that goes with it.
+ * <p>
+ * The problem is constant, so its body is pre-encoded by the {@link ProblemBodyCache}.
+ */
+public final class DegradedProblem {
+
+    private final ProblemDetail problemDetail;
+
+    private final String retryAfter;
+
+    public DegradedProblem(HttpStatusCode status, Duration retryAfter) {
+        this.problemDetail = ProblemDetail.forStatus(status);
+        this.retryAfter = String.valueOf(Math.max(0, retryAfter.toSeconds()));
+    }
+
+    /**
+     * Returns whether a problem with the given status is replaced during a storm, only server errors are.
+     */
+    public boolean replaces(int status) {
+        return status >= 500;
+    }
+
+    public HttpStatusCode getStatus() {
+        return HttpStatusCode.valueOf(problemDetail.getStatus());
+    }
+
+    /**
+     * Returns the shared problem, which must not be changed.
+     */
+    public ProblemDetail getProblemDetail() {
+        return problemDetail;
+    }
+
+    /**
+     * Returns the value of the {@code Retry-After} header, in seconds.
+     */
+    public String getRetryAfter() {
+        return retryAfter;
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.example.demo.problem;
+
+import org.springframework.http.MediaType;
+
+/**
+ * The representations in which an error response can be rendered.
+ */
+public enum ErrorRepresentation {
+
+    PROBLEM_JSON(MediaType.APPLICATION_PROBLEM_JSON),
+
+    PROBLEM_CBOR(ProblemMediaTypes.APPLICATION_PROBLEM_CBOR),
+
+    HTML(MediaType.TEXT_HTML);
+
+    private final MediaType mediaType;
+
+    ErrorRepresentation(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.example.demo.problem;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Resolves the {@link ErrorRepresentation} for the {@code Accept} header of a request, memoizing the result per
+ * distinct header value in a bounded {@link GenerationalCache}, which does not lock on lookups.
+ * <p>
+ * A JSON problem is only preferred when it is more acceptable than an HTML page. When both are equally acceptable,
+ * the HTML page wins, as browsers tend to list {@code text/html} explicitly and rely on wildcards for everything else.
+ * Requests without a (valid) {@code Accept} header get a JSON problem, requests accepting neither get {@code null}
+ * so the default error handling can take care of them.
+ * <p>
+ * A CBOR problem is only chosen when {@code application/problem+cbor} or {@code application/cbor} is listed
+ * explicitly, and is more acceptable than both a JSON problem and an HTML page. Wildcards keep resolving to JSON, which
+ * all clients can read.
+ */
+public class ErrorRepresentationResolver {
+
+    /**
+     * Values are {@link Optional} as an {@code Accept} header may accept none of the representations.
+     */
+    private final GenerationalCache<String, Optional<ErrorRepresentation>> representations;
+
+    public ErrorRepresentationResolver(int maximumSize) {
+        this.representations = new GenerationalCache<>(maximumSize);
+    }
+
+    @Nullable
+    public ErrorRepresentation resolve(@Nullable String accept) {
+        if (!StringUtils.hasText(accept)) {
+            return ErrorRepresentation.PROBLEM_JSON;
+        }
+
+        Optional<ErrorRepresentation> representation = representations.get(accept);
+        if (representation == null) {
+            representation = Optional.ofNullable(negotiate(accept));
+            representations.put(accept, representation);
+        }
+        return representation.orElse(null);
+    }
+
+    @Nullable
+    private static ErrorRepresentation negotiate(String accept) {
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException ex) {
+            return ErrorRepresentation.PROBLEM_JSON;
+        }
+
+        double problemQuality = 0;
+        double cborQuality = 0;
+        double htmlQuality = 0;
+        for (MediaType mediaType : mediaTypes) {
+            double quality = mediaType.getQualityValue();
+            if (MediaType.TEXT_HTML.equalsTypeAndSubtype(mediaType)) {
+                htmlQuality = Math.max(htmlQuality, quality);
+            } else if (ProblemMediaTypes.APPLICATION_PROBLEM_CBOR.equalsTypeAndSubtype(mediaType)
+                    || MediaType.APPLICATION_CBOR.equalsTypeAndSubtype(mediaType)) {
+                cborQuality = Math.max(cborQuality, quality);
+            } else if (acceptsJsonProblem(mediaType)) {
+                problemQuality = Math.max(problemQuality, quality);
+            }
+        }
+        if (cborQuality > problemQuality && cborQuality > htmlQuality) {
+            return ErrorRepresentation.PROBLEM_CBOR;
+        }
+        if (problemQuality > htmlQuality) {
+            return ErrorRepresentation.PROBLEM_JSON;
+        }
+        return (htmlQuality > 0 ? ErrorRepresentation.HTML : null);
+    }
+
+    /**
+     * Whether the given media type accepts a JSON problem. {@link MediaType#isCompatibleWith} covers wildcards like
+     * {@code application/*+json}, but does not match {@code application/json} against {@code application/problem+json},
+     * which is what most clients send.
+     */
+    private static boolean acceptsJsonProblem(MediaType mediaType) {
+        return (mediaType.isCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON)
+                || MediaType.APPLICATION_JSON.equalsTypeAndSubtype(mediaType));
+    }
+
+}
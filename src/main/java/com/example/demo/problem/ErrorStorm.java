@@ -0,0 +1,126 @@
+package com.example.demo.problem;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Watches the rate of server errors over a sliding window, and tells whether the application is in an error storm,
+ * like when a downstream dependency fails and most requests end up in the catch-all {@code @ExceptionHandler}.
+ * <p>
+ * The window is made of a fixed number of buckets that are reused round-robin, so recording a response is a few
+ * atomic operations without locking or allocation. Counts recorded by other threads while a bucket is being reset
+ * may get lost, which is fine for a rate. A storm starts once the window holds enough requests and the error rate
+ * reaches the threshold, and ends when the rate drops below half the threshold, or the window no longer holds
+ * enough requests. Every change is published as an {@link ErrorStormEvent}.
+ * <p>
+ * The buckets of the window are only summed up for the responses that can change the state, errors while there is no
+ * storm and other responses during one, so the successful responses of a healthy application only update a bucket.
+ * <p>
+ * While a storm is active, {@link ProblemException problem exceptions} created with the {@link ProblemStackTraces}
+ * of the same context do not capture their stack trace, as they are all alike, and the catch-all problems are
+ * replaced by a minimal pre-encoded one. The advices themselves can check {@link #isActive()}, for instance to skip
+ * logging.
+ */
+public class ErrorStorm {
+
+    private static final int BUCKET_COUNT = 10;
+
+    private final long bucketNanos;
+
+    private final double threshold;
+
+    private final long minimumRequests;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final LongSupplier nanoClock;
+
+    private final AtomicLongArray epochs = new AtomicLongArray(BUCKET_COUNT);
+
+    private final AtomicLongArray requests = new AtomicLongArray(BUCKET_COUNT);
+
+    private final AtomicLongArray errors = new AtomicLongArray(BUCKET_COUNT);
+
+    private final AtomicBoolean active = new AtomicBoolean();
+
+    public ErrorStorm(Duration window, double threshold, long minimumRequests, ApplicationEventPublisher eventPublisher) {
+        this(window, threshold, minimumRequests, eventPublisher, System::nanoTime);
+    }
+
+    ErrorStorm(Duration window, double threshold, long minimumRequests, ApplicationEventPublisher eventPublisher,
+               LongSupplier nanoClock) {
+        this.bucketNanos = Math.max(1, window.toNanos() / BUCKET_COUNT);
+        this.threshold = threshold;
+        this.minimumRequests = minimumRequests;
+        this.eventPublisher = eventPublisher;
+        this.nanoClock = nanoClock;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            this.epochs.set(i, Long.MIN_VALUE);
+        }
+    }
+
+    /**
+     * Records the status of a response, statuses of 500 and above count as errors.
+     */
+    public void record(int status) {
+        long epoch = Math.floorDiv(nanoClock.getAsLong(), bucketNanos);
+        int index = Math.floorMod(epoch, BUCKET_COUNT);
+
+        long bucketEpoch = epochs.get(index);
+        if (bucketEpoch != epoch && epochs.compareAndSet(index, bucketEpoch, epoch)) {
+            requests.set(index, 0);
+            errors.set(index, 0);
+        }
+        requests.incrementAndGet(index);
+        boolean error = (status >= 500);
+        if (error) {
+            errors.incrementAndGet(index);
+        }
+
+        if (error != active.get()) {
+            evaluate(epoch);
+        }
+    }
+
+    public boolean isActive() {
+        return active.get();
+    }
+
+    /**
+     * Returns the error rate over the current window.
+     */
+    public double getErrorRate() {
+        long epoch = Math.floorDiv(nanoClock.getAsLong(), bucketNanos);
+        long requestCount = sum(requests, epoch);
+        return (requestCount == 0 ? 0 : (double) sum(errors, epoch) / requestCount);
+    }
+
+    private void evaluate(long epoch) {
+        long requestCount = sum(requests, epoch);
+        double errorRate = (requestCount == 0 ? 0 : (double) sum(errors, epoch) / requestCount);
+        boolean wasActive = active.get();
+        boolean storm = requestCount >= minimumRequests && errorRate >= (wasActive ? threshold / 2 : threshold);
+        if (storm != wasActive && active.compareAndSet(wasActive, storm)) {
+            eventPublisher.publishEvent(new ErrorStormEvent(this, storm, errorRate));
+        }
+    }
+
+    /**
+     * Returns the sum of the given counters over the buckets within the window ending at the given epoch.
+     */
+    private long sum(AtomicLongArray counters, long epoch) {
+        long sum = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long bucketEpoch = epochs.get(i);
+            if (bucketEpoch > epoch - BUCKET_COUNT && bucketEpoch <= epoch) {
+                sum += counters.get(i);
+            }
+        }
+        return sum;
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.example.demo.problem;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published when an {@link ErrorStorm} starts or ends.
+ */
+public class ErrorStormEvent extends ApplicationEvent {
+
+    private final boolean active;
+
+    private final double errorRate;
+
+    public ErrorStormEvent(ErrorStorm source, boolean active, double errorRate) {
+        super(source);
+        this.active = active;
+        this.errorRate = errorRate;
+    }
+
+    /**
+     * Whether the storm started, rather than ended.
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * The error rate over the window at the time of the change.
+     */
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    @Override
+    public ErrorStorm getSource() {
+        return (ErrorStorm) super.getSource();
+    }
+
+}
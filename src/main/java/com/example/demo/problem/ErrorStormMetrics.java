@@ -0,0 +1,47 @@
+package com.example.demo.problem;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.ApplicationListener;
+
+/**
+ * Registers the meters of an {@link ErrorStorm}: whether a storm is active, the error rate over its window, and the
+ * number of storms that started and ended.
+ */
+public class ErrorStormMetrics implements ApplicationListener<ErrorStormEvent> {
+
+    public static final String ACTIVE_METRIC_NAME = "http.server.error.storm.active";
+
+    public static final String ERROR_RATE_METRIC_NAME = "http.server.error.storm.error.rate";
+
+    public static final String CHANGES_METRIC_NAME = "http.server.error.storm.changes";
+
+    private final Counter started;
+
+    private final Counter ended;
+
+    public ErrorStormMetrics(ErrorStorm errorStorm, MeterRegistry registry) {
+        Gauge.builder(ACTIVE_METRIC_NAME, errorStorm, storm -> (storm.isActive() ? 1 : 0))
+                .description("Whether the problem responses are degraded because of an error storm")
+                .register(registry);
+        Gauge.builder(ERROR_RATE_METRIC_NAME, errorStorm, ErrorStorm::getErrorRate)
+                .description("Rate of server errors over the window of the error storm detection")
+                .register(registry);
+        this.started = changes("started", registry);
+        this.ended = changes("ended", registry);
+    }
+
+    private static Counter changes(String state, MeterRegistry registry) {
+        return Counter.builder(CHANGES_METRIC_NAME)
+                .description("Number of error storms that started or ended")
+                .tag("state", state)
+                .register(registry);
+    }
+
+    @Override
+    public void onApplicationEvent(ErrorStormEvent event) {
+        (event.isActive() ? started : ended).increment();
+    }
+
+}
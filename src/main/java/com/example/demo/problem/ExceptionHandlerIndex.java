@@ -0,0 +1,102 @@
+package com.example.demo.problem;
+
+import org.springframework.lang.Nullable;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index from exception class to the {@code @ExceptionHandler} method that handles it, across a number of ordered
+ * advices.
+ * <p>
+ * The framework resolves an exception by walking the advices in order, asking each one for a handler for the exception
+ * or, failing that, for one of its causes. This index gives the same result with one lookup per exception in the cause
+ * chain: for each exception class it holds the first advice, in order, that handles that class. The advice handling the
+ * exception is then the first advice over the whole cause chain, where the outermost exception wins when an advice
+ * handles several exceptions of the chain.
+ * <p>
+ * The exception types declared by the handler methods are indexed on creation, other exception classes are
+ * memoized the first time they are seen.
+ *
+ * @param <A> the type of advice
+ */
+public final class ExceptionHandlerIndex<A> {
+
+    private final List<A> advices;
+
+    private final List<ExceptionHandlerMethodResolver> resolvers;
+
+    private final Map<Class<?>, Match<A>> declared;
+
+    private final Map<Class<?>, Match<A>> memoized = new ConcurrentHashMap<>();
+
+    private ExceptionHandlerIndex(Map<A, ExceptionHandlerMethodResolver> orderedAdvices) {
+        this.advices = List.copyOf(orderedAdvices.keySet());
+        this.resolvers = List.copyOf(orderedAdvices.values());
+
+        Map<Class<?>, Match<A>> declared = new HashMap<>();
+        for (ExceptionHandlerMethodResolver resolver : resolvers) {
+            for (Class<? extends Throwable> exceptionType : resolver.getHandledExceptionTypes()) {
+                declared.computeIfAbsent(exceptionType, this::resolve);
+            }
+        }
+        this.declared = Map.copyOf(declared);
+    }
+
+    /**
+     * Creates an index for the given advices, in the order in which they need to be consulted.
+     */
+    public static <A> ExceptionHandlerIndex<A> of(Map<A, ExceptionHandlerMethodResolver> orderedAdvices) {
+        return new ExceptionHandlerIndex<>(orderedAdvices);
+    }
+
+    /**
+     * Returns the advice and method that handle the given exception, or {@code null} if none of the advices handles
+     * it or any of its causes.
+     */
+    @Nullable
+    public Match<A> lookup(Throwable exception) {
+        Match<A> best = null;
+        for (Throwable current = exception; current != null; current = current.getCause()) {
+            Match<A> match = matchFor(current.getClass());
+            if (match != null && (best == null || match.order < best.order)) {
+                best = match;
+            }
+        }
+        return best;
+    }
+
+    @Nullable
+    private Match<A> matchFor(Class<? extends Throwable> exceptionType) {
+        Match<A> match = declared.get(exceptionType);
+        if (match == null) {
+            match = memoized.get(exceptionType);
+            if (match == null) {
+                match = resolve(exceptionType);
+                memoized.putIfAbsent(exceptionType, match);
+            }
+        }
+        return (match != Match.NONE ? match : null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Match<A> resolve(Class<?> exceptionType) {
+        for (int i = 0; i < resolvers.size(); i++) {
+            Method method = resolvers.get(i).resolveMethodByExceptionType((Class<? extends Throwable>) exceptionType);
+            if (method != null) {
+                return new Match<>(i, advices.get(i), method);
+            }
+        }
+        return (Match<A>) Match.NONE;
+    }
+
+    public record Match<A>(int order, A advice, Method method) {
+
+        private static final Match<?> NONE = new Match<>(Integer.MAX_VALUE, null, null);
+    }
+
+}
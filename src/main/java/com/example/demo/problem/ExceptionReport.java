@@ -0,0 +1,11 @@
+package com.example.demo.problem;
+
+/**
+ * The occurrences of an exception within a batch of the {@link ExceptionReporter}, deduplicated by fingerprint.
+ *
+ * @param fingerprint the type and top stack frame of the exception and its causes
+ * @param exception the first occurrence of the exception within the batch
+ * @param count the number of occurrences within the batch
+ */
+public record ExceptionReport(String fingerprint, Throwable exception, long count) {
+}
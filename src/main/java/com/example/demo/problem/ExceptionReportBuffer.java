@@ -0,0 +1,92 @@
+package com.example.demo.problem;
+
+import org.springframework.lang.Nullable;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded ring buffer with many producers and a single consumer, without locks.
+ * <p>
+ * Each slot carries a sequence number that tells whether it is free for the producer of a position, or holds the
+ * element of a position for the consumer. Producers claim a position with a compare-and-set of the tail, and give up
+ * when the slot of the tail has not been consumed yet, so {@link #offer(Object)} never waits.
+ */
+final class ExceptionReportBuffer<E> {
+
+    private final int mask;
+
+    private final AtomicReferenceArray<E> elements;
+
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * Creates a buffer that holds the given number of elements, rounded up to a power of two.
+     */
+    ExceptionReportBuffer(int capacity) {
+        int size = (capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1);
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            this.sequences.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Adds the element unless the buffer is full, and returns its position, or -1 if it was not added.
+     */
+    long offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.set(index, element);
+                    sequences.set(index, position + 1);
+                    return position;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return -1;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest element, or returns {@code null} when the buffer is empty. Only called by the consumer.
+     */
+    @Nullable
+    E poll() {
+        long position = head.get();
+        int index = (int) (position & mask);
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        E element = elements.get(index);
+        elements.set(index, null);
+        sequences.set(index, position + mask + 1);
+        head.lazySet(position + 1);
+        return element;
+    }
+
+    /**
+     * Returns the number of elements, which may be off while producers are adding elements.
+     */
+    int size() {
+        return (int) Math.max(0, Math.min(tail.get() - head.get(), mask + 1));
+    }
+
+}
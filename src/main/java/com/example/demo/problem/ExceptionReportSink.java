@@ -0,0 +1,16 @@
+package com.example.demo.problem;
+
+import java.util.List;
+
+/**
+ * Writes the batches of an {@link ExceptionReporter}, for instance to a log or an error tracking service.
+ * <p>
+ * It is called from the background thread of the reporter only, one batch at a time, so it does not need to be
+ * thread-safe and may block.
+ */
+@FunctionalInterface
+public interface ExceptionReportSink {
+
+    void write(List<ExceptionReport> reports);
+
+}
@@ -0,0 +1,248 @@
+package com.example.demo.problem;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Reports the exceptions behind server error problems without blocking the request thread, instead of logging them
+ * synchronously from the exception handlers.
+ * <p>
+ * {@link #report(Throwable)} samples the exception by type and adds it to a bounded lock-free buffer. When the buffer
+ * is full, the report is dropped and counted. A background thread drains the buffer in batches, at the latest after
+ * the flush interval, deduplicates the exceptions of a batch by fingerprint, and hands the batch to the
+ * {@link ExceptionReportSink}. During an incident, the same few exceptions are then written once per batch with their
+ * number of occurrences, instead of once per request. The thread is started by the first report, so applications that
+ * never report do not run it.
+ * <p>
+ * The sample rate of an exception is the one of its type, or of its closest superclass with a rate, which is resolved
+ * once per type. Types without a rate are always reported. The problem translations report the exceptions they turn
+ * into server errors, {@code @ExceptionHandler} methods call {@link #report(Throwable)} themselves.
+ */
+public class ExceptionReporter implements AutoCloseable {
+
+    private static final Log logger = LogFactory.getLog(ExceptionReporter.class);
+
+    private static final int FINGERPRINT_CAUSE_DEPTH = 5;
+
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(5);
+
+    private final ExceptionReportSink sink;
+
+    private final ExceptionReportBuffer<Throwable> buffer;
+
+    private final int batchSize;
+
+    private final long flushIntervalNanos;
+
+    private final Map<String, Double> sampleRates;
+
+    private final Map<Class<?>, Double> resolvedSampleRates = new ConcurrentHashMap<>();
+
+    private final LongAdder reportedCount = new LongAdder();
+
+    private final LongAdder sampledOutCount = new LongAdder();
+
+    private final LongAdder droppedCount = new LongAdder();
+
+    private final LongAdder writtenCount = new LongAdder();
+
+    private final Thread drainer;
+
+    private final boolean startDrainer;
+
+    private final AtomicBoolean drainerStarted = new AtomicBoolean();
+
+    private volatile boolean running = true;
+
+    private long lastDroppedCount;
+
+    /**
+     * Creates a reporter, whose background thread is started by the first report.
+     *
+     * @param sink where the batches are written
+     * @param bufferSize the number of reports that can wait for the background thread
+     * @param batchSize the maximum number of reports that are deduplicated and written at once
+     * @param flushInterval how long a report waits at most before it is written
+     * @param sampleRates the rates, between 0 and 1, at which exceptions are reported, by fully qualified type name
+     */
+    public ExceptionReporter(ExceptionReportSink sink, int bufferSize, int batchSize, Duration flushInterval,
+                             Map<String, Double> sampleRates) {
+        this(sink, bufferSize, batchSize, flushInterval, sampleRates, true);
+    }
+
+    ExceptionReporter(ExceptionReportSink sink, int bufferSize, int batchSize, Duration flushInterval,
+                      Map<String, Double> sampleRates, boolean startDrainer) {
+        this.sink = sink;
+        this.buffer = new ExceptionReportBuffer<>(bufferSize);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalNanos = Math.max(1, flushInterval.toNanos());
+        this.sampleRates = Map.copyOf(sampleRates);
+        this.drainer = new Thread(this::drainContinuously, "exception-reporter");
+        this.drainer.setDaemon(true);
+        this.startDrainer = startDrainer;
+    }
+
+    /**
+     * Reports the exception, unless it is sampled out or the buffer is full. Never blocks.
+     *
+     * @return whether the exception will be written
+     */
+    public boolean report(Throwable ex) {
+        reportedCount.increment();
+        double sampleRate = resolvedSampleRates.computeIfAbsent(ex.getClass(), this::resolveSampleRate);
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            sampledOutCount.increment();
+            return false;
+        }
+
+        long position = buffer.offer(ex);
+        if (position < 0) {
+            droppedCount.increment();
+            return false;
+        }
+        if (startDrainer && !drainerStarted.get() && drainerStarted.compareAndSet(false, true)) {
+            drainer.start();
+        }
+        if ((position + 1) % batchSize == 0) {
+            LockSupport.unpark(drainer);
+        }
+        return true;
+    }
+
+    private double resolveSampleRate(Class<?> exceptionType) {
+        for (Class<?> type = exceptionType; type != null; type = type.getSuperclass()) {
+            Double sampleRate = sampleRates.get(type.getName());
+            if (sampleRate != null) {
+                return sampleRate;
+            }
+        }
+        return 1.0;
+    }
+
+    private void drainContinuously() {
+        while (running) {
+            if (drain() < batchSize) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+        }
+        while (drain() > 0) {
+            // Writes what was reported before closing
+        }
+    }
+
+    /**
+     * Writes one batch of the buffered reports, and returns the number of exceptions in it.
+     */
+    int drain() {
+        Map<String, Report> batch = new LinkedHashMap<>();
+        int drained = 0;
+        while (drained < batchSize) {
+            Throwable ex = buffer.poll();
+            if (ex == null) {
+                break;
+            }
+            batch.computeIfAbsent(fingerprint(ex), key -> new Report(key, ex)).count++;
+            drained++;
+        }
+        warnAboutDroppedReports();
+        if (drained == 0) {
+            return 0;
+        }
+
+        List<ExceptionReport> reports = new ArrayList<>(batch.size());
+        for (Report report : batch.values()) {
+            reports.add(new ExceptionReport(report.fingerprint, report.exception, report.count));
+        }
+        try {
+            sink.write(reports);
+        } catch (RuntimeException sinkEx) {
+            logger.warn("Failed to write " + drained + " exception reports", sinkEx);
+        }
+        writtenCount.add(drained);
+        return drained;
+    }
+
+    private void warnAboutDroppedReports() {
+        long dropped = droppedCount.sum();
+        if (dropped != lastDroppedCount) {
+            logger.warn((dropped - lastDroppedCount) + " exception reports were dropped, as the buffer was full");
+            lastDroppedCount = dropped;
+        }
+    }
+
+    /**
+     * Returns the types of the exception and its causes, with the stack frame each was thrown from, so exceptions
+     * thrown from the same place are alike whatever their message. Exceptions without stack trace are only told
+     * apart by type.
+     */
+    static String fingerprint(Throwable ex) {
+        StringBuilder fingerprint = new StringBuilder();
+        Throwable current = ex;
+        for (int depth = 0; current != null && depth < FINGERPRINT_CAUSE_DEPTH; depth++) {
+            if (depth > 0) {
+                fingerprint.append(" <- ");
+            }
+            fingerprint.append(current.getClass().getName());
+            StackTraceElement[] stackTrace = current.getStackTrace();
+            if (stackTrace.length > 0) {
+                fingerprint.append(" at ").append(stackTrace[0]);
+            }
+            current = (current.getCause() != current ? current.getCause() : null);
+        }
+        return fingerprint.toString();
+    }
+
+    public Statistics getStatistics() {
+        return new Statistics(reportedCount.sum(), sampledOutCount.sum(), droppedCount.sum(), writtenCount.sum(), buffer.size());
+    }
+
+    /**
+     * Stops the background thread once it has written the remaining reports.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join(CLOSE_TIMEOUT.toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Report {
+
+        private final String fingerprint;
+
+        private final Throwable exception;
+
+        private long count;
+
+        Report(String fingerprint, Throwable exception) {
+            this.fingerprint = fingerprint;
+            this.exception = exception;
+        }
+    }
+
+    /**
+     * @param reportedCount the number of exceptions that were reported
+     * @param sampledOutCount the number of those that were skipped by the sampling
+     * @param droppedCount the number of those that were dropped because the buffer was full
+     * @param writtenCount the number of those that were handed to the sink
+     * @param pending the number of those that wait in the buffer
+     */
+    public record Statistics(long reportedCount, long sampledOutCount, long droppedCount, long writtenCount, int pending) {
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.example.demo.problem;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Registers the meters of an {@link ExceptionReporter}: the reported exceptions counted by what became of them, and
+ * the number of reports waiting in the buffer.
+ */
+public class ExceptionReporterMetrics {
+
+    public static final String REPORTS_METRIC_NAME = "problem.exception.reports";
+
+    public static final String PENDING_METRIC_NAME = "problem.exception.reports.pending";
+
+    public ExceptionReporterMetrics(ExceptionReporter reporter, MeterRegistry registry) {
+        FunctionCounter.builder(REPORTS_METRIC_NAME, reporter, r -> r.getStatistics().writtenCount())
+                .description("Exceptions reported by the problem handlers")
+                .tag("result", "written")
+                .register(registry);
+        FunctionCounter.builder(REPORTS_METRIC_NAME, reporter, r -> r.getStatistics().sampledOutCount())
+                .description("Exceptions reported by the problem handlers")
+                .tag("result", "sampled.out")
+                .register(registry);
+        FunctionCounter.builder(REPORTS_METRIC_NAME, reporter, r -> r.getStatistics().droppedCount())
+                .description("Exceptions reported by the problem handlers")
+                .tag("result", "dropped")
+                .register(registry);
+        Gauge.builder(PENDING_METRIC_NAME, reporter, r -> r.getStatistics().pending())
+                .description("Exception reports waiting to be written")
+                .register(registry);
+    }
+
+}
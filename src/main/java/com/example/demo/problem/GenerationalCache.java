@@ -0,0 +1,75 @@
+package com.example.demo.problem;
+
+import org.springframework.lang.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded concurrent cache that approximates LRU eviction with two generations, without locking on lookups.
+ * <p>
+ * Entries are added to the current generation. Once it holds half the maximum size, it becomes the previous
+ * generation, and the entries of the former previous generation are dropped at once. An entry found in the previous
+ * generation is copied to the current one, so entries that are used keep surviving, while one-off entries are
+ * evicted after two generations. Entries added concurrently with a switch may end up in the previous generation,
+ * which only shortens their life.
+ * <p>
+ * Values can not be {@code null}.
+ */
+final class GenerationalCache<K, V> {
+
+    private final int generationSize;
+
+    private volatile Map<K, V> current = new ConcurrentHashMap<>();
+
+    private volatile Map<K, V> previous = new ConcurrentHashMap<>();
+
+    GenerationalCache(int maximumSize) {
+        this.generationSize = Math.max(1, maximumSize / 2);
+    }
+
+    @Nullable
+    V get(K key) {
+        V value = current.get(key);
+        if (value == null) {
+            value = previous.get(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    void put(K key, V value) {
+        Map<K, V> current = this.current;
+        current.put(key, value);
+        if (current.size() >= generationSize) {
+            advance(current);
+        }
+    }
+
+    void remove(K key) {
+        current.remove(key);
+        previous.remove(key);
+    }
+
+    /**
+     * Returns the number of entries, which may count an entry twice while it is copied between generations.
+     */
+    int size() {
+        return current.size() + previous.size();
+    }
+
+    synchronized void clear() {
+        previous = new ConcurrentHashMap<>();
+        current = new ConcurrentHashMap<>();
+    }
+
+    private synchronized void advance(Map<K, V> full) {
+        if (current == full) {
+            previous = full;
+            current = new ConcurrentHashMap<>();
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.example.demo.problem;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
+import org.springframework.lang.Nullable;
+import org.springframework.web.ErrorResponse;
+
+import java.util.Set;
+
+/**
+ * An {@link ErrorResponse} that a handler mapping returns as the result of a request it cannot map, instead of
+ * throwing the exception the framework would otherwise throw.
+ * <p>
+ * Its problem detail and headers are the default ones of that exception, like the {@code Allow} header of a 405.
+ * As no exception is thrown, no stack trace is captured, and no {@code @ExceptionHandler} method, not even a
+ * catch-all one, gets the chance to handle it.
+ */
+public final class HandlerMappingErrorResponse implements ErrorResponse {
+
+    private final HttpStatusCode status;
+
+    private final HttpHeaders headers;
+
+    private final ProblemDetail body;
+
+    private HandlerMappingErrorResponse(HttpStatusCode status, HttpHeaders headers, @Nullable String detail) {
+        this.status = status;
+        this.headers = headers;
+        this.body = ProblemDetail.forStatusAndDetail(status, detail);
+    }
+
+    public static HandlerMappingErrorResponse notFound(@Nullable String detail) {
+        return new HandlerMappingErrorResponse(HttpStatus.NOT_FOUND, HttpHeaders.EMPTY, detail);
+    }
+
+    public static HandlerMappingErrorResponse methodNotAllowed(String detail, Set<HttpMethod> allowedMethods) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAllow(allowedMethods);
+        return new HandlerMappingErrorResponse(HttpStatus.METHOD_NOT_ALLOWED, HttpHeaders.readOnlyHttpHeaders(headers), detail);
+    }
+
+    @Override
+    public HttpStatusCode getStatusCode() {
+        return status;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    @Override
+    public ProblemDetail getBody() {
+        return body;
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.example.demo.problem;
+
+import com.example.demo.problem.reactive.LazyErrorWebExceptionHandler;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.autoconfigure.web.servlet.error.BasicErrorController;
+import org.springframework.boot.web.reactive.error.ErrorWebExceptionHandler;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.View;
+
+/**
+ * Defers the creation of the error infrastructure that is only used once an error occurs, to cut the startup time.
+ * <p>
+ * The {@link BasicErrorController} and the whitelabel error view are only looked up by name when they are needed, so
+ * they are simply marked as lazy. The {@code DefaultErrorWebExceptionHandler} is collected with all other exception
+ * handlers when the reactive HTTP handler is built, so it is replaced by a {@link LazyErrorWebExceptionHandler} that
+ * creates it on the first error.
+ * <p>
+ * Message converters and codecs are not deferred: they are needed for every response, not just for errors. Neither
+ * are the {@code ResponseEntityExceptionHandler} advice beans, which are created anyway when the handler adapters
+ * resolve the order of the controller advice.
+ */
+public class LazyErrorInfrastructurePostProcessor implements BeanFactoryPostProcessor, Ordered {
+
+    static final String ERROR_WEB_EXCEPTION_HANDLER_BEAN_NAME = "errorWebExceptionHandler";
+
+    static final String WHITELABEL_ERROR_VIEW_BEAN_NAME = "error";
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        for (String beanName : beanFactory.getBeanNamesForType(BasicErrorController.class, true, false)) {
+            beanFactory.getBeanDefinition(beanName).setLazyInit(true);
+        }
+
+        if (beanFactory.containsBeanDefinition(WHITELABEL_ERROR_VIEW_BEAN_NAME)
+                && beanFactory.isTypeMatch(WHITELABEL_ERROR_VIEW_BEAN_NAME, View.class)) {
+            beanFactory.getBeanDefinition(WHITELABEL_ERROR_VIEW_BEAN_NAME).setLazyInit(true);
+        }
+
+        if (beanFactory instanceof BeanDefinitionRegistry registry
+                && registry.containsBeanDefinition(ERROR_WEB_EXCEPTION_HANDLER_BEAN_NAME)
+                && beanFactory.isTypeMatch(ERROR_WEB_EXCEPTION_HANDLER_BEAN_NAME, ErrorWebExceptionHandler.class)) {
+            deferErrorWebExceptionHandler(registry);
+        }
+    }
+
+    /**
+     * Moves the definition of the {@code DefaultErrorWebExceptionHandler} to a lazy, non-autowirable target, and
+     * registers a {@link LazyErrorWebExceptionHandler} for it under the original name.
+     */
+    private static void deferErrorWebExceptionHandler(BeanDefinitionRegistry registry) {
+        String targetBeanName = LazyErrorWebExceptionHandler.targetBeanName(ERROR_WEB_EXCEPTION_HANDLER_BEAN_NAME);
+        BeanDefinition target = registry.getBeanDefinition(ERROR_WEB_EXCEPTION_HANDLER_BEAN_NAME);
+        target.setLazyInit(true);
+        target.setAutowireCandidate(false);
+        registry.removeBeanDefinition(ERROR_WEB_EXCEPTION_HANDLER_BEAN_NAME);
+        registry.registerBeanDefinition(targetBeanName, target);
+
+        RootBeanDefinition lazy = new RootBeanDefinition(LazyErrorWebExceptionHandler.class);
+        lazy.getConstructorArgumentValues().addIndexedArgumentValue(0, targetBeanName);
+        // The order of the DefaultErrorWebExceptionHandler, see ErrorWebFluxAutoConfiguration
+        lazy.getConstructorArgumentValues().addIndexedArgumentValue(1, -1);
+        registry.registerBeanDefinition(ERROR_WEB_EXCEPTION_HANDLER_BEAN_NAME, lazy);
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.example.demo.problem;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.List;
+
+/**
+ * Logs each report at error level with the stack trace of its first occurrence, and the number of occurrences when
+ * the exception happened more than once within the batch.
+ */
+public class LoggingExceptionReportSink implements ExceptionReportSink {
+
+    private static final Log logger = LogFactory.getLog(ExceptionReporter.class);
+
+    @Override
+    public void write(List<ExceptionReport> reports) {
+        if (!logger.isErrorEnabled()) {
+            return;
+        }
+        for (ExceptionReport report : reports) {
+            if (report.count() == 1) {
+                logger.error("Unexpected exception", report.exception());
+            } else {
+                logger.error("Unexpected exception, " + report.count() + " occurrences", report.exception());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.example.demo.problem;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A pre-encoded JSON problem body without the {@code instance} member.
+ * <p>
+ * The {@code instance} is the only member of a problem that differs per request for otherwise constant problems, so
+ * it is spliced in just before the closing brace when writing the body, instead of encoding the whole problem again.
+ * For the same reason, the {@link #getEntityTag() entity tag} is computed from the body without {@code instance}.
+ */
+public final class ProblemBody {
+
+    private static final byte[] INSTANCE_MEMBER = "\"instance\":\"".getBytes(StandardCharsets.UTF_8);
+
+    private final byte[] bytes;
+
+    @Nullable
+    private volatile String entityTag;
+
+    ProblemBody(byte[] bytes) {
+        if (bytes.length < 2 || bytes[bytes.length - 1] != '}') {
+            throw new IllegalArgumentException("Not an encoded JSON object");
+        }
+        this.bytes = bytes;
+    }
+
+    /**
+     * Writes this body with the given {@code instance} spliced in.
+     */
+    public void writeTo(OutputStream outputStream, @Nullable URI instance) throws IOException {
+        if (instance == null) {
+            outputStream.write(bytes);
+            return;
+        }
+
+        outputStream.write(bytes, 0, bytes.length - 1);
+        if (hasMembers()) {
+            outputStream.write(',');
+        }
+        outputStream.write(INSTANCE_MEMBER);
+        outputStream.write(quote(instance));
+        outputStream.write('"');
+        outputStream.write('}');
+    }
+
+    /**
+     * Returns this body with the given {@code instance} spliced in as a {@link DataBuffer}. Without an
+     * {@code instance} the pre-encoded bytes are wrapped, not copied.
+     */
+    public DataBuffer toDataBuffer(DataBufferFactory bufferFactory, @Nullable URI instance) {
+        if (instance == null) {
+            return bufferFactory.wrap(bytes);
+        }
+
+        byte[] quotedInstance = quote(instance);
+        DataBuffer buffer = bufferFactory.allocateBuffer(bytes.length + INSTANCE_MEMBER.length + quotedInstance.length + 3);
+        buffer.write(bytes, 0, bytes.length - 1);
+        if (hasMembers()) {
+            buffer.write((byte) ',');
+        }
+        buffer.write(INSTANCE_MEMBER);
+        buffer.write(quotedInstance);
+        buffer.write((byte) '"');
+        buffer.write((byte) '}');
+        return buffer;
+    }
+
+    /**
+     * Returns the strong entity tag of this body, computed on first use.
+     */
+    public String getEntityTag() {
+        String entityTag = this.entityTag;
+        if (entityTag == null) {
+            entityTag = ProblemCaching.entityTag(bytes);
+            this.entityTag = entityTag;
+        }
+        return entityTag;
+    }
+
+    private boolean hasMembers() {
+        return bytes.length > 2;
+    }
+
+    private static byte[] quote(URI instance) {
+        return JsonStringEncoder.getInstance().quoteAsUTF8(instance.toString());
+    }
+
+}
@@ -0,0 +1,159 @@
+package com.example.demo.problem;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.lang.Nullable;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of pre-encoded {@link ProblemBody problem bodies}.
+ * <p>
+ * Most problem responses are constant for a given status, type, title and detail, so encoding them with Jackson for
+ * every response is wasted work. Bodies are cached per status, type, title, detail, extension properties and media
+ * type. The {@code instance} is left out of the key, as it is spliced in when the body is written.
+ * <p>
+ * Only plain {@link ProblemDetail} instances with scalar extension properties are cached. The cache is bounded with
+ * an approximate LRU eviction, so problems with a detail that differs per request, like the path of a
+ * {@link HandlerMappingErrorResponse}, only push out each other and the constant problems that are not used.
+ * <p>
+ * Problems held by a constant, which never change, can also be looked up by the identity of that constant, which saves
+ * building the key from their content. These bodies belong to this cache too, so they are encoded by the object mapper
+ * of its application context and dropped by {@link #clear()}.
+ */
+public class ProblemBodyCache {
+
+    private final ProblemDetailJsonWriter jsonWriter;
+
+    private final GenerationalCache<Key, ProblemBody> bodies;
+
+    /**
+     * Bodies by the identity of the constant holding the problem.
+     */
+    private final GenerationalCache<Object, ProblemBody> constantBodies;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    public ProblemBodyCache(ObjectMapper objectMapper, int maximumSize) {
+        this(new ProblemDetailJsonWriter(objectMapper), maximumSize);
+    }
+
+    public ProblemBodyCache(ProblemDetailJsonWriter jsonWriter, int maximumSize) {
+        this.jsonWriter = jsonWriter;
+        this.bodies = new GenerationalCache<>(maximumSize);
+        this.constantBodies = new GenerationalCache<>(maximumSize);
+    }
+
+    /**
+     * Returns the pre-encoded body for the given problem, without its {@code instance}, or {@code null} if the problem
+     * can not be cached for the given media type.
+     */
+    @Nullable
+    public ProblemBody get(ProblemDetail problemDetail, MediaType mediaType) {
+        if (!isCacheable(problemDetail, mediaType)) {
+            return null;
+        }
+
+        Key key = new Key(problemDetail.getStatus(), problemDetail.getType(), problemDetail.getTitle(),
+                problemDetail.getDetail(), problemDetail.getProperties(), mediaType);
+
+        ProblemBody body = bodies.get(key);
+        if (body != null) {
+            hits.increment();
+            return body;
+        }
+
+        misses.increment();
+        body = encodeWithoutInstance(problemDetail);
+        bodies.put(key.immutableCopy(), body);
+        return body;
+    }
+
+    /**
+     * Returns the pre-encoded {@code application/problem+json} body of the problem held by the given constant, which
+     * must not change, or {@code null} if the problem can not be cached. Lookups by constant are not counted in the
+     * statistics.
+     */
+    @Nullable
+    public ProblemBody getConstant(Object constant, ProblemDetail problemDetail) {
+        ProblemBody body = constantBodies.get(constant);
+        if (body == null) {
+            body = get(problemDetail, MediaType.APPLICATION_PROBLEM_JSON);
+            if (body != null) {
+                constantBodies.put(constant, body);
+            }
+        }
+        return body;
+    }
+
+    public Statistics getStatistics() {
+        return new Statistics(hits.sum(), misses.sum(), bodies.size());
+    }
+
+    public void clear() {
+        bodies.clear();
+        constantBodies.clear();
+    }
+
+    private ProblemBody encodeWithoutInstance(ProblemDetail problemDetail) {
+        ProblemDetail withoutInstance = ProblemDetail.forStatus(problemDetail.getStatus());
+        withoutInstance.setType(problemDetail.getType());
+        withoutInstance.setTitle(problemDetail.getTitle());
+        withoutInstance.setDetail(problemDetail.getDetail());
+        if (problemDetail.getProperties() != null) {
+            problemDetail.getProperties().forEach(withoutInstance::setProperty);
+        }
+
+        return new ProblemBody(jsonWriter.writeAsBytes(withoutInstance));
+    }
+
+    private static boolean isCacheable(ProblemDetail problemDetail, MediaType mediaType) {
+        if (problemDetail.getClass() != ProblemDetail.class) {
+            return false;
+        }
+        if (!isJson(mediaType)) {
+            return false;
+        }
+
+        Map<String, Object> properties = problemDetail.getProperties();
+        if (properties != null) {
+            for (Object value : properties.values()) {
+                if (value != null && !(value instanceof String || value instanceof Number || value instanceof Boolean)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isJson(MediaType mediaType) {
+        return MediaType.APPLICATION_JSON.isCompatibleWith(mediaType)
+                || (MediaType.APPLICATION_JSON.getType().equals(mediaType.getType()) && "json".equals(mediaType.getSubtypeSuffix()));
+    }
+
+    private record Key(int status, URI type, @Nullable String title, @Nullable String detail,
+                       @Nullable Map<String, Object> properties, MediaType mediaType) {
+
+        Key immutableCopy() {
+            if (properties == null) {
+                return this;
+            }
+            return new Key(status, type, title, detail, new LinkedHashMap<>(properties), mediaType);
+        }
+    }
+
+    public record Statistics(long hitCount, long missCount, int size) {
+
+        public double hitRate() {
+            long requestCount = hitCount + missCount;
+            return (requestCount == 0 ? 1.0 : (double) hitCount / requestCount);
+        }
+    }
+
+}
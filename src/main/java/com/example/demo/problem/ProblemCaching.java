@@ -0,0 +1,85 @@
+package com.example.demo.problem;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Makes the problem responses of selected statuses cacheable, so repeated requests for a missing path can be answered
+ * by a CDN or the client cache, or with a {@code 304 Not Modified} without a body.
+ * <p>
+ * The entity tag of a problem is computed once from its pre-encoded body, see {@link ProblemBody#getEntityTag()} and
+ * {@link WhitelabelErrorPages#getEntityTag}. The {@code instance} of a problem is left out, as it is the path of the
+ * request, which is already part of the cache key. Only {@code GET} and {@code HEAD} requests are cacheable, and the
+ * responses vary by {@code Accept}, as it selects between the JSON, CBOR and HTML representations.
+ * <p>
+ * It is applied by the 404 fast paths, and to the problems written by the message converters, see
+ * {@link com.example.demo.problem.servlet.ProblemCachingResponseBodyAdvice} and
+ * {@link com.example.demo.problem.reactive.ProblemDetailHttpMessageWriter}.
+ */
+public class ProblemCaching {
+
+    private final BitSet statuses = new BitSet(600);
+
+    private final String cacheControl;
+
+    public ProblemCaching(Set<HttpStatus> statuses, Duration maxAge) {
+        for (HttpStatus status : statuses) {
+            this.statuses.set(status.value());
+        }
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic().getHeaderValue();
+    }
+
+    /**
+     * Returns the {@code Cache-Control} header value for a problem with the given status in response to the given
+     * method, or {@code null} when it is not cacheable.
+     */
+    @Nullable
+    public String getCacheControl(String method, int status) {
+        boolean cacheable = (HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method)) && statuses.get(status);
+        return (cacheable ? cacheControl : null);
+    }
+
+    /**
+     * Returns the strong entity tag of the given encoded body.
+     */
+    public static String entityTag(byte[] body) {
+        return "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+    }
+
+    /**
+     * Returns whether one of the {@code If-None-Match} header values matches the given entity tag, using the weak
+     * comparison that {@code If-None-Match} calls for.
+     * <p>
+     * A {@code *} never matches: it matches any current representation of the resource, and a problem response
+     * means there is none, so RFC 9110 requires the problem to be sent rather than a 304.
+     */
+    public static boolean isNotModified(@Nullable List<String> ifNoneMatch, String entityTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaqueTag = opaqueTag(entityTag);
+        for (String value : ifNoneMatch) {
+            for (String candidate : StringUtils.commaDelimitedListToStringArray(value)) {
+                candidate = candidate.trim();
+                if (opaqueTag(candidate).equals(opaqueTag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String opaqueTag(String entityTag) {
+        return (entityTag.startsWith("W/") ? entityTag.substring(2) : entityTag);
+    }
+
+}
@@ -0,0 +1,172 @@
+package com.example.demo.problem;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.converter.json.ProblemDetailJacksonMixin;
+import org.springframework.lang.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * Streams {@link ProblemDetail problem details} as JSON with a Jackson {@link JsonGenerator}.
+ * <p>
+ * The members of a plain {@link ProblemDetail} are written one by one, in the same order and with the same inclusion
+ * rules as the {@link ProblemDetailJacksonMixin}, so no serializer lookup or intermediate object is needed. Only the
+ * values of the extension properties are written through the object mapper. A {@link CompactProblemDetail} is written
+ * the same way, with the pre-encoded names of its declared properties, without building its properties map. Other
+ * subclasses of {@link ProblemDetail} may add members of their own, so they are serialized by the object mapper as a
+ * whole.
+ * <p>
+ * The generator is created by the object mapper, so a mapper of another Jackson format, like CBOR, streams the same
+ * members in that format.
+ */
+public class ProblemDetailJsonWriter {
+
+    /**
+     * Large enough for a problem without extension properties.
+     */
+    private static final int INITIAL_BUFFER_SIZE = 256;
+
+    private final ObjectMapper objectMapper;
+
+    public ProblemDetailJsonWriter(ObjectMapper objectMapper) {
+        this.objectMapper = withProblemDetailMixin(objectMapper);
+    }
+
+    /**
+     * Writes the given problem to the output stream, which is flushed but left open.
+     */
+    public void write(ProblemDetail problemDetail, OutputStream outputStream) throws IOException {
+        write(problemDetail, null, outputStream);
+    }
+
+    /**
+     * Writes the given problem to the output stream, with the given {@code instance} if the problem has none of its
+     * own. The {@code instance} is not applied to subclasses of {@link ProblemDetail}.
+     */
+    public void write(ProblemDetail problemDetail, @Nullable URI instance, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            write(problemDetail, instance, generator);
+        }
+    }
+
+    /**
+     * Writes the given problem to a buffer allocated from the given factory, which is pooled on Netty.
+     */
+    public DataBuffer write(ProblemDetail problemDetail, DataBufferFactory bufferFactory) {
+        return write(problemDetail, null, bufferFactory);
+    }
+
+    /**
+     * Writes the given problem to a buffer allocated from the given factory, with the given {@code instance} if the
+     * problem has none of its own. The {@code instance} is not applied to subclasses of {@link ProblemDetail}.
+     */
+    public DataBuffer write(ProblemDetail problemDetail, @Nullable URI instance, DataBufferFactory bufferFactory) {
+        DataBuffer buffer = bufferFactory.allocateBuffer(INITIAL_BUFFER_SIZE);
+        boolean release = true;
+        try {
+            write(problemDetail, instance, buffer.asOutputStream());
+            release = false;
+            return buffer;
+        } catch (IOException ex) {
+            throw new EncodingException("Could not encode problem detail: " + ex.getMessage(), ex);
+        } finally {
+            if (release) {
+                DataBufferUtils.release(buffer);
+            }
+        }
+    }
+
+    public byte[] writeAsBytes(ProblemDetail problemDetail) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        try {
+            write(problemDetail, outputStream);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not encode problem detail: " + ex.getMessage(), ex);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private void write(ProblemDetail problemDetail, @Nullable URI instance, JsonGenerator generator) throws IOException {
+        if (problemDetail.getClass() == CompactProblemDetail.class) {
+            write((CompactProblemDetail) problemDetail, instance, generator);
+            return;
+        }
+        if (problemDetail.getClass() != ProblemDetail.class) {
+            objectMapper.writeValue(generator, problemDetail);
+            return;
+        }
+
+        generator.writeStartObject();
+        writeMembers(problemDetail, instance, generator);
+        writeProperties(problemDetail.getProperties(), generator);
+        generator.writeEndObject();
+    }
+
+    private void write(CompactProblemDetail problemDetail, @Nullable URI instance, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        writeMembers(problemDetail, instance, generator);
+        CompactProblemDetail.Extensions extensions = problemDetail.getExtensions();
+        for (int slot = 0; slot < extensions.size(); slot++) {
+            if (problemDetail.hasValue(slot)) {
+                generator.writeFieldName(extensions.getEncodedName(slot));
+                generator.writeObject(problemDetail.getValue(slot));
+            }
+        }
+        writeProperties(problemDetail.getUndeclaredProperties(), generator);
+        generator.writeEndObject();
+    }
+
+    private static void writeMembers(ProblemDetail problemDetail, @Nullable URI instance, JsonGenerator generator) throws IOException {
+        writeUri(generator, "type", problemDetail.getType());
+        writeString(generator, "title", problemDetail.getTitle());
+        generator.writeNumberField("status", problemDetail.getStatus());
+        writeString(generator, "detail", problemDetail.getDetail());
+        writeUri(generator, "instance", (problemDetail.getInstance() != null ? problemDetail.getInstance() : instance));
+    }
+
+    private static void writeProperties(@Nullable Map<String, Object> properties, JsonGenerator generator) throws IOException {
+        if (properties != null) {
+            for (Map.Entry<String, Object> property : properties.entrySet()) {
+                generator.writeFieldName(property.getKey());
+                generator.writeObject(property.getValue());
+            }
+        }
+    }
+
+    private static void writeUri(JsonGenerator generator, String name, @Nullable URI value) throws IOException {
+        if (value != null) {
+            writeString(generator, name, value.toString());
+        }
+    }
+
+    private static void writeString(JsonGenerator generator, String name, @Nullable String value) throws IOException {
+        if (value != null && !value.isEmpty()) {
+            generator.writeStringField(name, value);
+        }
+    }
+
+    /**
+     * Subclasses are serialized by the object mapper, which must leave out empty members, like the
+     * {@link ProblemDetailJacksonMixin} does. Most object mappers already have it, but this makes sure of it.
+     */
+    private static ObjectMapper withProblemDetailMixin(ObjectMapper objectMapper) {
+        if (objectMapper.findMixInClassFor(ProblemDetail.class) != null) {
+            return objectMapper;
+        }
+        ObjectMapper copy = objectMapper.copy();
+        copy.addMixIn(ProblemDetail.class, ProblemDetailJacksonMixin.class);
+        return copy;
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.example.demo.problem;
+
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
+import org.springframework.lang.Nullable;
+import org.springframework.web.ErrorResponseException;
+
+/**
+ * {@link ErrorResponseException} for expected problems, that skips capturing its stack trace when the
+ * {@link ProblemStackTraces} of the application context say so for its status. Inject the
+ * {@link ProblemStackTraces} bean to create them.
+ * <p>
+ * Capturing the stack trace is the most expensive part of throwing an exception, and nobody looks at the stack of an
+ * ordinary client error. As the stack trace is filled in while the {@link Throwable} constructor runs, before the
+ * status is known, this class skips it there and fills it in afterwards when it needs to be captured. Calling
+ * {@link #fillInStackTrace()} later on has no effect.
+ */
+public class ProblemException extends ErrorResponseException {
+
+    public ProblemException(ProblemStackTraces stackTraces, HttpStatusCode status) {
+        this(stackTraces, status, null);
+    }
+
+    public ProblemException(ProblemStackTraces stackTraces, HttpStatusCode status, @Nullable Throwable cause) {
+        super(status, cause);
+        captureStackTrace(stackTraces, status);
+    }
+
+    public ProblemException(ProblemStackTraces stackTraces, HttpStatusCode status, ProblemDetail body, @Nullable Throwable cause) {
+        super(status, body, cause);
+        captureStackTrace(stackTraces, status);
+    }
+
+    private void captureStackTrace(ProblemStackTraces stackTraces, HttpStatusCode status) {
+        if (stackTraces.isCaptured(status)) {
+            super.fillInStackTrace();
+        }
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
+}
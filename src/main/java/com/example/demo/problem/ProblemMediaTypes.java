@@ -0,0 +1,20 @@
+package com.example.demo.problem;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Media types of problem details that are not declared by {@link MediaType}.
+ */
+public final class ProblemMediaTypes {
+
+    /**
+     * The CBOR representation of a problem detail, with the {@code +cbor} structured syntax suffix of RFC 8949.
+     */
+    public static final String APPLICATION_PROBLEM_CBOR_VALUE = "application/problem+cbor";
+
+    public static final MediaType APPLICATION_PROBLEM_CBOR = MediaType.parseMediaType(APPLICATION_PROBLEM_CBOR_VALUE);
+
+    private ProblemMediaTypes() {
+    }
+
+}
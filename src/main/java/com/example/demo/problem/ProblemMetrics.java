@@ -0,0 +1,66 @@
+package com.example.demo.problem;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Records the problem responses in a {@link Timer}, tagged by status, problem type, exception and
+ * {@link ProblemOrigin origin}.
+ * <p>
+ * Timers are cached by origin, exception class, problem type and status, in that order, so recording a problem that
+ * was seen before does not build any tags or meter ids. Only statuses from 400 to 599 are recorded.
+ */
+public class ProblemMetrics {
+
+    public static final String METRIC_NAME = "http.server.problems";
+
+    private static final int MIN_STATUS = 400;
+
+    private static final int MAX_STATUS = 599;
+
+    private static final String NONE = "none";
+
+    private final MeterRegistry registry;
+
+    private final List<Map<Class<?>, Map<String, AtomicReferenceArray<Timer>>>> timers;
+
+    public ProblemMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.timers = new ArrayList<>();
+        for (int i = 0; i < ProblemOrigin.values().length; i++) {
+            this.timers.add(new ConcurrentHashMap<>());
+        }
+    }
+
+    public void record(ProblemOrigin origin, int status, @Nullable String problemType, @Nullable Class<?> exceptionType, long durationNanos) {
+        if (status < MIN_STATUS || status > MAX_STATUS) {
+            return;
+        }
+
+        AtomicReferenceArray<Timer> timersByStatus = timers.get(origin.ordinal())
+                .computeIfAbsent((exceptionType != null ? exceptionType : Void.class), key -> new ConcurrentHashMap<>())
+                .computeIfAbsent((problemType != null ? problemType : NONE), key -> new AtomicReferenceArray<>(MAX_STATUS - MIN_STATUS + 1));
+
+        Timer timer = timersByStatus.get(status - MIN_STATUS);
+        if (timer == null) {
+            timer = Timer.builder(METRIC_NAME)
+                    .description("Duration of requests that resulted in a problem response")
+                    .tag("origin", origin.getTagValue())
+                    .tag("status", String.valueOf(status))
+                    .tag("type", (problemType != null ? problemType : NONE))
+                    .tag("exception", (exceptionType != null ? exceptionType.getSimpleName() : NONE))
+                    .register(registry);
+            timersByStatus.set(status - MIN_STATUS, timer);
+        }
+        timer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.example.demo.problem;
+
+import com.example.demo.problem.reactive.ProblemMetricsWebFilter;
+import com.example.demo.problem.reactive.ProblemOriginHandlerResultHandler;
+import com.example.demo.problem.servlet.ProblemMetricsFilter;
+import com.example.demo.problem.servlet.ProblemOriginResponseBodyAdvice;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.reactive.result.method.annotation.ResponseEntityResultHandler;
+
+/**
+ * Auto-configuration of the {@link ProblemMetrics} for both the servlet and the reactive stack.
+ * <p>
+ * Only activated when Micrometer is on the classpath and a {@link MeterRegistry} is available, which is normally
+ * provided by the actuator.
+ */
+@AutoConfiguration(
+        after = ProblemSupportAutoConfiguration.class,
+        afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration"
+)
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnBean(MeterRegistry.class)
+@ConditionalOnProperty(prefix = "problem-support.metrics", name = "enabled", matchIfMissing = true)
+public class ProblemMetricsAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    ProblemMetrics problemMetrics(MeterRegistry meterRegistry) {
+        return new ProblemMetrics(meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnBean(ResourceMissCache.class)
+    ResourceMissCacheMetrics resourceMissCacheMetrics(ResourceMissCache resourceMissCache, MeterRegistry meterRegistry) {
+        return new ResourceMissCacheMetrics(resourceMissCache, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnBean(ErrorStorm.class)
+    ErrorStormMetrics errorStormMetrics(ErrorStorm errorStorm, MeterRegistry meterRegistry) {
+        return new ErrorStormMetrics(errorStorm, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnBean(ExceptionReporter.class)
+    ExceptionReporterMetrics exceptionReporterMetrics(ExceptionReporter exceptionReporter, MeterRegistry meterRegistry) {
+        return new ExceptionReporterMetrics(exceptionReporter, meterRegistry);
+    }
+
+    //******************************************************************************************************************
+    //** WebMVC ********************************************************************************************************
+    //******************************************************************************************************************
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class WebMvcProblemMetricsConfiguration {
+
+        @Bean
+        FilterRegistrationBean<ProblemMetricsFilter> problemMetricsFilter(ProblemMetrics problemMetrics) {
+            FilterRegistrationBean<ProblemMetricsFilter> registration = new FilterRegistrationBean<>(new ProblemMetricsFilter(problemMetrics));
+            registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ERROR);
+            // Around the 404 fast path, so it sees the origin that is stored by it
+            registration.setOrder(Ordered.LOWEST_PRECEDENCE - 20);
+            return registration;
+        }
+
+        @Bean
+        ProblemOriginResponseBodyAdvice problemOriginResponseBodyAdvice() {
+            return new ProblemOriginResponseBodyAdvice();
+        }
+    }
+
+    //******************************************************************************************************************
+    //** Webflux *******************************************************************************************************
+    //******************************************************************************************************************
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    static class WebfluxProblemMetricsConfiguration {
+
+        @Bean
+        ProblemMetricsWebFilter problemMetricsWebFilter(ProblemMetrics problemMetrics) {
+            return new ProblemMetricsWebFilter(problemMetrics);
+        }
+
+        @Bean
+        ProblemOriginHandlerResultHandler problemOriginHandlerResultHandler(ObjectProvider<ResponseEntityResultHandler> responseEntityResultHandler) {
+            return new ProblemOriginHandlerResultHandler(responseEntityResultHandler);
+        }
+    }
+
+}
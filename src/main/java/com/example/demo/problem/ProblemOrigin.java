@@ -0,0 +1,111 @@
+package com.example.demo.problem;
+
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The component that handled an error and turned it into a response.
+ * <p>
+ * The origin is stored as request or exchange attribute by the component handling the error, or by the problem
+ * support on its behalf, so it can be observed once the response is written.
+ */
+public enum ProblemOrigin {
+
+    /**
+     * A {@code ResponseEntityExceptionHandler}, of either stack.
+     */
+    RESPONSE_ENTITY_EXCEPTION_HANDLER("response-entity-exception-handler"),
+
+    /**
+     * An {@code @ExceptionHandler} method handling {@link Exception} or {@link Throwable}.
+     */
+    CATCH_ALL_ADVICE("catch-all-advice"),
+
+    /**
+     * Any other {@code @ExceptionHandler} method.
+     */
+    EXCEPTION_HANDLER("exception-handler"),
+
+    /**
+     * The {@code BasicErrorController}, after an ERROR dispatch.
+     */
+    ERROR_CONTROLLER("error-controller"),
+
+    /**
+     * An {@code ErrorWebExceptionHandler}, like the {@code DefaultErrorWebExceptionHandler}.
+     */
+    ERROR_WEB_EXCEPTION_HANDLER("error-web-exception-handler"),
+
+    /**
+     * The 404 fast path of the problem support.
+     */
+    NOT_FOUND_FAST_PATH("not-found-fast-path"),
+
+    /**
+     * A {@link HandlerMappingErrorResponse} returned by a handler mapping of the problem support.
+     */
+    HANDLER_MAPPING("handler-mapping"),
+
+    /**
+     * A translation of the {@link ProblemTranslations}.
+     */
+    TRANSLATION("problem-translation"),
+
+    /**
+     * The handler itself, for instance a controller returning an error status.
+     */
+    OTHER("other");
+
+    public static final String ATTRIBUTE = ProblemOrigin.class.getName();
+
+    public static final String PROBLEM_TYPE_ATTRIBUTE = ProblemOrigin.class.getName() + ".PROBLEM_TYPE";
+
+    public static final String EXCEPTION_ATTRIBUTE = ProblemOrigin.class.getName() + ".EXCEPTION";
+
+    private static final List<String> RESPONSE_ENTITY_EXCEPTION_HANDLERS = List.of(
+            "org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler",
+            "org.springframework.web.reactive.result.method.annotation.ResponseEntityExceptionHandler"
+    );
+
+    private static final Map<Method, ProblemOrigin> exceptionHandlerOrigins = new ConcurrentHashMap<>();
+
+    private final String tagValue;
+
+    ProblemOrigin(String tagValue) {
+        this.tagValue = tagValue;
+    }
+
+    public String getTagValue() {
+        return tagValue;
+    }
+
+    /**
+     * Returns the origin of a problem produced by the given {@code @ExceptionHandler} method.
+     */
+    public static ProblemOrigin forExceptionHandler(Class<?> beanType, Method method) {
+        return exceptionHandlerOrigins.computeIfAbsent(method, key -> determineOrigin(beanType, method));
+    }
+
+    private static ProblemOrigin determineOrigin(Class<?> beanType, Method method) {
+        for (Class<?> type = beanType; type != null; type = type.getSuperclass()) {
+            if (RESPONSE_ENTITY_EXCEPTION_HANDLERS.contains(type.getName())) {
+                return RESPONSE_ENTITY_EXCEPTION_HANDLER;
+            }
+        }
+
+        ExceptionHandler exceptionHandler = method.getAnnotation(ExceptionHandler.class);
+        List<Class<?>> handledTypes = (exceptionHandler != null && exceptionHandler.value().length > 0
+                ? Arrays.asList(exceptionHandler.value())
+                : Arrays.asList(method.getParameterTypes()));
+        if (handledTypes.contains(Exception.class) || handledTypes.contains(Throwable.class)) {
+            return CATCH_ALL_ADVICE;
+        }
+        return EXCEPTION_HANDLER;
+    }
+
+}
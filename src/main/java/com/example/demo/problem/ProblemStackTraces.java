@@ -0,0 +1,52 @@
+package com.example.demo.problem;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.lang.Nullable;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Decides whether a {@link ProblemException} captures its stack trace, based on the series of its status.
+ * <p>
+ * An instance is created per application context from the {@code problem-support.stackless.series} property, and
+ * passed to the problem exceptions that are created in that context, so applications that share a JVM do not affect
+ * each other. Stack traces of server errors are captured, as those are the ones that get logged and investigated,
+ * except during an {@link ErrorStorm} of the same context, when they all look alike.
+ */
+public class ProblemStackTraces {
+
+    /**
+     * Captures the stack traces of all problem exceptions, like for any other exception.
+     */
+    public static final ProblemStackTraces CAPTURED = new ProblemStackTraces(EnumSet.noneOf(HttpStatus.Series.class));
+
+    private final Set<HttpStatus.Series> stacklessSeries;
+
+    @Nullable
+    private final ErrorStorm errorStorm;
+
+    public ProblemStackTraces(Set<HttpStatus.Series> stacklessSeries) {
+        this(stacklessSeries, null);
+    }
+
+    public ProblemStackTraces(Set<HttpStatus.Series> stacklessSeries, @Nullable ErrorStorm errorStorm) {
+        EnumSet<HttpStatus.Series> stackless = (stacklessSeries.isEmpty() ? EnumSet.noneOf(HttpStatus.Series.class) : EnumSet.copyOf(stacklessSeries));
+        stackless.remove(HttpStatus.Series.SERVER_ERROR);
+        this.stacklessSeries = stackless;
+        this.errorStorm = errorStorm;
+    }
+
+    /**
+     * Whether an exception with the given status captures its stack trace.
+     */
+    public boolean isCaptured(HttpStatusCode status) {
+        if (errorStorm != null && errorStorm.isActive()) {
+            return false;
+        }
+        HttpStatus.Series series = HttpStatus.Series.resolve(status.value());
+        return (series == null || !stacklessSeries.contains(series));
+    }
+
+}
@@ -0,0 +1,438 @@
+package com.example.demo.problem;
+
+import com.example.demo.problem.reactive.ConstantProblemResultHandler;
+import com.example.demo.problem.reactive.ErrorStormHandlerResultHandler;
+import com.example.demo.problem.reactive.ErrorStormWebFilter;
+import com.example.demo.problem.reactive.NotFoundErrorResponseWebHandlerMapping;
+import com.example.demo.problem.reactive.NotFoundProblemWebExceptionHandler;
+import com.example.demo.problem.reactive.ProblemDetailHttpMessageWriter;
+import com.example.demo.problem.reactive.ProblemSupportWebFluxRegistrations;
+import com.example.demo.problem.reactive.ProblemTranslationWebExceptionHandler;
+import com.example.demo.problem.reactive.ResourceMissWebHandlerAdapter;
+import com.example.demo.problem.servlet.ErrorStormFilter;
+import com.example.demo.problem.servlet.ErrorStormResponseBodyAdvice;
+import com.example.demo.problem.servlet.NotFoundErrorResponseHandlerMapping;
+import com.example.demo.problem.servlet.NotFoundProblemFilter;
+import com.example.demo.problem.servlet.ProblemCachingResponseBodyAdvice;
+import com.example.demo.problem.servlet.ProblemDetailHttpMessageConverter;
+import com.example.demo.problem.servlet.ProblemSupportWebMvcRegistrations;
+import com.example.demo.problem.servlet.ProblemTranslationHandlerExceptionResolver;
+import com.example.demo.problem.servlet.ResourceMissHttpRequestHandlerAdapter;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import jakarta.servlet.DispatcherType;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.reactive.WebFluxAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.reactive.WebFluxRegistrations;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.boot.autoconfigure.web.servlet.error.ErrorMvcAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.reactive.result.method.annotation.ResponseEntityResultHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Auto-configuration of the problem support for both the servlet and the reactive stack.
+ * <p>
+ * Everything is only activated when problem details are enabled for the respective stack, using
+ * {@code spring.mvc.problemdetails.enabled} or {@code spring.webflux.problemdetails.enabled}.
+ */
+@AutoConfiguration(after = {
+        JacksonAutoConfiguration.class,
+        WebMvcAutoConfiguration.class,
+        ErrorMvcAutoConfiguration.class,
+        WebFluxAutoConfiguration.class
+})
+@EnableConfigurationProperties(ProblemSupportProperties.class)
+public class ProblemSupportAutoConfiguration {
+
+    private static final Log logger = LogFactory.getLog(ProblemSupportAutoConfiguration.class);
+
+    private static final String CBOR_FACTORY_CLASS_NAME = "com.fasterxml.jackson.dataformat.cbor.CBORFactory";
+
+    /**
+     * Always created, as the series are bound from any form of list property, which a property condition does not
+     * see.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    ProblemStackTraces problemStackTraces(ProblemSupportProperties properties, ObjectProvider<ErrorStorm> errorStorm) {
+        return new ProblemStackTraces(properties.getStackless().getSeries(), errorStorm.getIfAvailable());
+    }
+
+    /**
+     * Static, as it post-processes the bean factory.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "problem-support.lazy-error-infrastructure", name = "enabled", matchIfMissing = true)
+    static LazyErrorInfrastructurePostProcessor lazyErrorInfrastructurePostProcessor() {
+        return new LazyErrorInfrastructurePostProcessor();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    ErrorRepresentationResolver errorRepresentationResolver(ProblemSupportProperties properties) {
+        return new ErrorRepresentationResolver(properties.getNegotiation().getCacheSize());
+    }
+
+    /**
+     * Only created when the application registers translations, so the stacks keep their default error handling
+     * otherwise.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(ProblemTranslationRegistrar.class)
+    ProblemTranslations problemTranslations(ObjectProvider<ProblemTranslationRegistrar> registrars) {
+        ProblemTranslations.Builder builder = ProblemTranslations.builder();
+        registrars.orderedStream().forEach(registrar -> registrar.register(builder));
+        return builder.build();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "problem-support.resource-miss-cache", name = "enabled", matchIfMissing = true)
+    ResourceMissCache resourceMissCache(ProblemSupportProperties properties) {
+        ProblemSupportProperties.ResourceMissCache resourceMissCache = properties.getResourceMissCache();
+        return new ResourceMissCache(resourceMissCache.getMaximumSize(), resourceMissCache.getTimeToLive());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "problem-support.error-storm", name = "enabled", havingValue = "true")
+    ErrorStorm errorStorm(ProblemSupportProperties properties, ApplicationEventPublisher eventPublisher) {
+        ProblemSupportProperties.ErrorStorm errorStorm = properties.getErrorStorm();
+        return new ErrorStorm(errorStorm.getWindow(), errorStorm.getThreshold(), errorStorm.getMinimumRequests(), eventPublisher);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "problem-support.error-storm", name = "enabled", havingValue = "true")
+    DegradedProblem degradedProblem(ProblemSupportProperties properties) {
+        return new DegradedProblem(properties.getErrorStorm().getStatus(), properties.getErrorStorm().getRetryAfter());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "problem-support.exception-reporting", name = "enabled", matchIfMissing = true)
+    ExceptionReporter exceptionReporter(ProblemSupportProperties properties, ObjectProvider<ExceptionReportSink> sink) {
+        ProblemSupportProperties.ExceptionReporting exceptionReporting = properties.getExceptionReporting();
+        return new ExceptionReporter(sink.getIfAvailable(LoggingExceptionReportSink::new), exceptionReporting.getBufferSize(),
+                exceptionReporting.getBatchSize(), exceptionReporting.getFlushInterval(), exceptionReporting.getSampleRates());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "problem-support.caching", name = "enabled", havingValue = "true")
+    ProblemCaching problemCaching(ProblemSupportProperties properties) {
+        return new ProblemCaching(properties.getCaching().getStatuses(), properties.getCaching().getMaxAge());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "problem-support.error-page", name = "enabled", havingValue = "true")
+    WhitelabelErrorPages whitelabelErrorPages() {
+        return new WhitelabelErrorPages();
+    }
+
+    /**
+     * Streams problems as CBOR, with an object mapper configured like the JSON one. This is not a bean, as it would be
+     * ambiguous with the writer of the JSON problems.
+     * <p>
+     * Only available when the application adds {@code jackson-dataformat-cbor}, which is an optional dependency: with
+     * it on the classpath, WebMVC also registers a CBOR converter for all request and response bodies, not just for
+     * problems.
+     */
+    @Nullable
+    private static ProblemDetailJsonWriter cborProblemDetailWriter(ProblemSupportProperties properties,
+                                                                   ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder) {
+        if (!properties.getCbor().isEnabled()
+                || !ClassUtils.isPresent(CBOR_FACTORY_CLASS_NAME, ProblemSupportAutoConfiguration.class.getClassLoader())) {
+            return null;
+        }
+        Jackson2ObjectMapperBuilder builder = objectMapperBuilder.getIfAvailable(Jackson2ObjectMapperBuilder::cbor);
+        return new ProblemDetailJsonWriter(builder.factory(CborFactories.create()).build());
+    }
+
+    /**
+     * Holds the only reference to the optional {@link CBORFactory}, so this configuration loads without it.
+     */
+    private static final class CborFactories {
+
+        static JsonFactory create() {
+            return new CBORFactory();
+        }
+    }
+
+    private static void logRegistrationsBackOff(Class<?> registrationsType, Stream<?> registrations,
+                                                Class<?> problemSupportRegistrations, List<String> features) {
+        if (!features.isEmpty() && registrations.noneMatch(problemSupportRegistrations::isInstance)) {
+            logger.warn("The " + registrationsType.getSimpleName() + " of the application replaces the one of the problem "
+                    + "support, so the following enabled features are not installed: " + String.join(", ", features));
+        }
+    }
+
+    //******************************************************************************************************************
+    //** WebMVC ********************************************************************************************************
+    //******************************************************************************************************************
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnProperty(prefix = "spring.mvc.problemdetails", name = "enabled", havingValue = "true")
+    static class WebMvcProblemSupportConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        ProblemDetailJsonWriter problemDetailJsonWriter(ObjectMapper objectMapper) {
+            return new ProblemDetailJsonWriter(objectMapper);
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        ProblemBodyCache problemBodyCache(ProblemDetailJsonWriter problemDetailJsonWriter, ProblemSupportProperties properties) {
+            return new ProblemBodyCache(problemDetailJsonWriter, properties.getBodyCache().getMaximumSize());
+        }
+
+        /**
+         * Picked up by the {@code HttpMessageConverters}, which places it in front of the default converters.
+         */
+        @Bean
+        ProblemDetailHttpMessageConverter problemDetailHttpMessageConverter(ProblemBodyCache problemBodyCache,
+                                                                            ProblemDetailJsonWriter problemDetailJsonWriter) {
+            return new ProblemDetailHttpMessageConverter(problemBodyCache, problemDetailJsonWriter);
+        }
+
+        /**
+         * Defined after the JSON converter, so wildcards keep negotiating JSON problems.
+         */
+        @Bean
+        @ConditionalOnClass(name = CBOR_FACTORY_CLASS_NAME)
+        @ConditionalOnProperty(prefix = "problem-support.cbor", name = "enabled", matchIfMissing = true)
+        ProblemDetailHttpMessageConverter problemDetailCborHttpMessageConverter(ProblemSupportProperties properties,
+                                                                                ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder) {
+            return new ProblemDetailHttpMessageConverter(cborProblemDetailWriter(properties, objectMapperBuilder),
+                    ProblemMediaTypes.APPLICATION_PROBLEM_CBOR);
+        }
+
+        @Bean
+        @ConditionalOnProperty(prefix = "problem-support.servlet.not-found-fast-path", name = "enabled", matchIfMissing = true)
+        FilterRegistrationBean<NotFoundProblemFilter> notFoundProblemFilter(ProblemBodyCache problemBodyCache,
+                                                                            ErrorRepresentationResolver errorRepresentationResolver,
+                                                                            ObjectProvider<WhitelabelErrorPages> whitelabelErrorPages,
+                                                                            ObjectProvider<ProblemCaching> problemCaching,
+                                                                            ProblemSupportProperties properties,
+                                                                            ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder) {
+            NotFoundProblemFilter filter = new NotFoundProblemFilter(problemBodyCache, errorRepresentationResolver,
+                    whitelabelErrorPages.getIfAvailable(), problemCaching.getIfAvailable(),
+                    cborProblemDetailWriter(properties, objectMapperBuilder));
+            FilterRegistrationBean<NotFoundProblemFilter> registration = new FilterRegistrationBean<>(filter);
+            registration.setDispatcherTypes(DispatcherType.REQUEST);
+            // As close to the DispatcherServlet as possible, so filters in front of it see the final response
+            registration.setOrder(Ordered.LOWEST_PRECEDENCE - 10);
+            return registration;
+        }
+
+        @Bean
+        @ConditionalOnProperty(prefix = "problem-support.error-storm", name = "enabled", havingValue = "true")
+        FilterRegistrationBean<ErrorStormFilter> errorStormFilter(ErrorStorm errorStorm) {
+            FilterRegistrationBean<ErrorStormFilter> registration = new FilterRegistrationBean<>(new ErrorStormFilter(errorStorm));
+            registration.setDispatcherTypes(DispatcherType.REQUEST);
+            // Around the 404 fast path, so it sees the status of the problems written by it
+            registration.setOrder(Ordered.LOWEST_PRECEDENCE - 20);
+            return registration;
+        }
+
+        @Bean
+        @ConditionalOnProperty(prefix = "problem-support.error-storm", name = "enabled", havingValue = "true")
+        ErrorStormResponseBodyAdvice errorStormResponseBodyAdvice(ErrorStorm errorStorm, DegradedProblem degradedProblem) {
+            return new ErrorStormResponseBodyAdvice(errorStorm, degradedProblem);
+        }
+
+        @Bean
+        @ConditionalOnProperty(prefix = "problem-support.caching", name = "enabled", havingValue = "true")
+        ProblemCachingResponseBodyAdvice problemCachingResponseBodyAdvice(ProblemCaching problemCaching, ProblemBodyCache problemBodyCache) {
+            return new ProblemCachingResponseBodyAdvice(problemCaching, problemBodyCache);
+        }
+
+        @Bean
+        ResourceMissHttpRequestHandlerAdapter resourceMissHttpRequestHandlerAdapter(ProblemSupportProperties properties,
+                                                                                    ObjectProvider<ResourceMissCache> resourceMissCache) {
+            return new ResourceMissHttpRequestHandlerAdapter(properties.getStaticResourceIndex().isEnabled(), resourceMissCache.getIfAvailable());
+        }
+
+        @Bean
+        @ConditionalOnBean(ProblemTranslationRegistrar.class)
+        ProblemTranslationHandlerExceptionResolver problemTranslationHandlerExceptionResolver(ProblemTranslations problemTranslations,
+                                                                                              ProblemBodyCache problemBodyCache,
+                                                                                              ProblemDetailJsonWriter problemDetailJsonWriter,
+                                                                                              ObjectProvider<ExceptionReporter> exceptionReporter) {
+            return new ProblemTranslationHandlerExceptionResolver(problemTranslations, problemBodyCache, problemDetailJsonWriter, exceptionReporter.getIfAvailable());
+        }
+
+        @Bean
+        @ConditionalOnMissingBean(WebMvcRegistrations.class)
+        ProblemSupportWebMvcRegistrations problemSupportWebMvcRegistrations(ProblemSupportProperties properties) {
+            return new ProblemSupportWebMvcRegistrations(properties.getServlet().getExceptionHandlerIndex().isEnabled(),
+                    properties.getHandlerMappingErrorResponses().isEnabled());
+        }
+
+        /**
+         * Spring Boot applies a single {@link WebMvcRegistrations}, so the one of the problem support backs off when
+         * the application declares its own. The features that depend on it are then off, which is logged at startup.
+         */
+        @Bean
+        SmartInitializingSingleton problemSupportWebMvcRegistrationsCheck(ProblemSupportProperties properties,
+                                                                          ObjectProvider<WebMvcRegistrations> registrations) {
+            return () -> {
+                List<String> features = new ArrayList<>();
+                if (properties.getServlet().getExceptionHandlerIndex().isEnabled()) {
+                    features.add("problem-support.servlet.exception-handler-index");
+                }
+                if (properties.getHandlerMappingErrorResponses().isEnabled()) {
+                    features.add("problem-support.handler-mapping-error-responses");
+                }
+                logRegistrationsBackOff(WebMvcRegistrations.class, registrations.stream(), ProblemSupportWebMvcRegistrations.class, features);
+            };
+        }
+
+        @Bean
+        @ConditionalOnProperty(prefix = "problem-support.handler-mapping-error-responses", name = "enabled", havingValue = "true")
+        NotFoundErrorResponseHandlerMapping notFoundErrorResponseHandlerMapping() {
+            return new NotFoundErrorResponseHandlerMapping();
+        }
+    }
+
+    //******************************************************************************************************************
+    //** Webflux *******************************************************************************************************
+    //******************************************************************************************************************
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    @ConditionalOnProperty(prefix = "spring.webflux.problemdetails", name = "enabled", havingValue = "true")
+    static class WebfluxProblemSupportConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        ProblemDetailJsonWriter problemDetailJsonWriter(ObjectMapper objectMapper) {
+            return new ProblemDetailJsonWriter(objectMapper);
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        ProblemBodyCache problemBodyCache(ProblemDetailJsonWriter problemDetailJsonWriter, ProblemSupportProperties properties) {
+            return new ProblemBodyCache(problemDetailJsonWriter, properties.getBodyCache().getMaximumSize());
+        }
+
+        @Bean
+        CodecCustomizer problemDetailCodecCustomizer(ProblemBodyCache problemBodyCache, ProblemDetailJsonWriter problemDetailJsonWriter,
+                                                     ProblemSupportProperties properties,
+                                                     ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder,
+                                                     ObjectProvider<ProblemCaching> problemCaching) {
+            ProblemDetailJsonWriter cborWriter = cborProblemDetailWriter(properties, objectMapperBuilder);
+            ProblemCaching caching = problemCaching.getIfAvailable();
+            return configurer -> {
+                configurer.customCodecs().register(new ProblemDetailHttpMessageWriter(problemBodyCache, problemDetailJsonWriter, caching));
+                // After the JSON writer, which is picked when the media type is not negotiated yet
+                if (cborWriter != null) {
+                    configurer.customCodecs().register(new ProblemDetailHttpMessageWriter(cborWriter, ProblemMediaTypes.APPLICATION_PROBLEM_CBOR, caching));
+                }
+            };
+        }
+
+        @Bean
+        @ConditionalOnProperty(prefix = "problem-support.reactive.not-found-fast-path", name = "enabled", matchIfMissing = true)
+        NotFoundProblemWebExceptionHandler notFoundProblemWebExceptionHandler(ProblemBodyCache problemBodyCache,
+                                                                              ErrorRepresentationResolver errorRepresentationResolver,
+                                                                              ObjectProvider<WhitelabelErrorPages> whitelabelErrorPages,
+                                                                              ObjectProvider<ProblemCaching> problemCaching,
+                                                                              ProblemSupportProperties properties,
+                                                                              ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder) {
+            return new NotFoundProblemWebExceptionHandler(problemBodyCache, errorRepresentationResolver,
+                    whitelabelErrorPages.getIfAvailable(), problemCaching.getIfAvailable(),
+                    cborProblemDetailWriter(properties, objectMapperBuilder));
+        }
+
+        @Bean
+        @ConditionalOnProperty(prefix = "problem-support.error-storm", name = "enabled", havingValue = "true")
+        ErrorStormWebFilter errorStormWebFilter(ErrorStorm errorStorm) {
+            return new ErrorStormWebFilter(errorStorm);
+        }
+
+        @Bean
+        @ConditionalOnProperty(prefix = "problem-support.error-storm", name = "enabled", havingValue = "true")
+        ErrorStormHandlerResultHandler errorStormHandlerResultHandler(ErrorStorm errorStorm, DegradedProblem degradedProblem,
+                                                                      ProblemBodyCache problemBodyCache) {
+            return new ErrorStormHandlerResultHandler(errorStorm, degradedProblem, problemBodyCache);
+        }
+
+        @Bean
+        ResourceMissWebHandlerAdapter resourceMissWebHandlerAdapter(ProblemSupportProperties properties,
+                                                                    ObjectProvider<ResourceMissCache> resourceMissCache) {
+            return new ResourceMissWebHandlerAdapter(properties.getStaticResourceIndex().isEnabled(), resourceMissCache.getIfAvailable());
+        }
+
+        @Bean
+        @ConditionalOnBean(ProblemTranslationRegistrar.class)
+        ProblemTranslationWebExceptionHandler problemTranslationWebExceptionHandler(ProblemTranslations problemTranslations,
+                                                                                    ProblemBodyCache problemBodyCache,
+                                                                                    ProblemDetailJsonWriter problemDetailJsonWriter,
+                                                                                    ObjectProvider<ExceptionReporter> exceptionReporter) {
+            return new ProblemTranslationWebExceptionHandler(problemTranslations, problemBodyCache, problemDetailJsonWriter, exceptionReporter.getIfAvailable());
+        }
+
+        @Bean
+        @ConditionalOnProperty(prefix = "problem-support.handler-mapping-error-responses", name = "enabled", havingValue = "true")
+        NotFoundErrorResponseWebHandlerMapping notFoundErrorResponseWebHandlerMapping() {
+            return new NotFoundErrorResponseWebHandlerMapping();
+        }
+
+        @Bean
+        @ConditionalOnMissingBean(WebFluxRegistrations.class)
+        @ConditionalOnProperty(prefix = "problem-support.handler-mapping-error-responses", name = "enabled", havingValue = "true")
+        ProblemSupportWebFluxRegistrations problemSupportWebFluxRegistrations() {
+            return new ProblemSupportWebFluxRegistrations();
+        }
+
+        /**
+         * Spring Boot applies a single {@link WebFluxRegistrations}, so the one of the problem support backs off when
+         * the application declares its own. The features that depend on it are then off, which is logged at startup.
+         */
+        @Bean
+        @ConditionalOnProperty(prefix = "problem-support.handler-mapping-error-responses", name = "enabled", havingValue = "true")
+        SmartInitializingSingleton problemSupportWebFluxRegistrationsCheck(ObjectProvider<WebFluxRegistrations> registrations) {
+            return () -> logRegistrationsBackOff(WebFluxRegistrations.class, registrations.stream(),
+                    ProblemSupportWebFluxRegistrations.class, List.of("problem-support.handler-mapping-error-responses"));
+        }
+
+        @Bean
+        @ConditionalOnProperty(prefix = "problem-support.reactive.constant-problems", name = "enabled", matchIfMissing = true)
+        ConstantProblemResultHandler constantProblemResultHandler(ProblemBodyCache problemBodyCache,
+                                                                  ErrorRepresentationResolver errorRepresentationResolver,
+                                                                  ObjectProvider<ResponseEntityResultHandler> responseEntityResultHandler) {
+            return new ConstantProblemResultHandler(problemBodyCache, errorRepresentationResolver, responseEntityResultHandler);
+        }
+    }
+
+}
@@ -0,0 +1,592 @@
+package com.example.demo.problem;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Configuration properties for the problem support.
+ */
+@ConfigurationProperties("problem-support")
+public class ProblemSupportProperties {
+
+    private final BodyCache bodyCache = new BodyCache();
+
+    private final Stackless stackless = new Stackless();
+
+    private final Negotiation negotiation = new Negotiation();
+
+    private final ErrorPage errorPage = new ErrorPage();
+
+    private final Metrics metrics = new Metrics();
+
+    private final LazyErrorInfrastructure lazyErrorInfrastructure = new LazyErrorInfrastructure();
+
+    private final StaticResourceIndex staticResourceIndex = new StaticResourceIndex();
+
+    private final ResourceMissCache resourceMissCache = new ResourceMissCache();
+
+    private final ErrorStorm errorStorm = new ErrorStorm();
+
+    private final ExceptionReporting exceptionReporting = new ExceptionReporting();
+
+    private final Caching caching = new Caching();
+
+    private final HandlerMappingErrorResponses handlerMappingErrorResponses = new HandlerMappingErrorResponses();
+
+    private final Cbor cbor = new Cbor();
+
+    private final Servlet servlet = new Servlet();
+
+    private final Reactive reactive = new Reactive();
+
+    public BodyCache getBodyCache() {
+        return bodyCache;
+    }
+
+    public Stackless getStackless() {
+        return stackless;
+    }
+
+    public Negotiation getNegotiation() {
+        return negotiation;
+    }
+
+    public ErrorPage getErrorPage() {
+        return errorPage;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public LazyErrorInfrastructure getLazyErrorInfrastructure() {
+        return lazyErrorInfrastructure;
+    }
+
+    public StaticResourceIndex getStaticResourceIndex() {
+        return staticResourceIndex;
+    }
+
+    public ResourceMissCache getResourceMissCache() {
+        return resourceMissCache;
+    }
+
+    public ErrorStorm getErrorStorm() {
+        return errorStorm;
+    }
+
+    public ExceptionReporting getExceptionReporting() {
+        return exceptionReporting;
+    }
+
+    public Caching getCaching() {
+        return caching;
+    }
+
+    public HandlerMappingErrorResponses getHandlerMappingErrorResponses() {
+        return handlerMappingErrorResponses;
+    }
+
+    public Cbor getCbor() {
+        return cbor;
+    }
+
+    public Servlet getServlet() {
+        return servlet;
+    }
+
+    public Reactive getReactive() {
+        return reactive;
+    }
+
+    public static class BodyCache {
+
+        /**
+         * Maximum number of pre-encoded problem bodies to keep.
+         */
+        private int maximumSize = 256;
+
+        public int getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(int maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+    }
+
+    public static class Stackless {
+
+        /**
+         * Status series for which a ProblemException does not capture its stack trace, for instance
+         * "client-error". Stack traces are always captured for server errors.
+         */
+        private Set<HttpStatus.Series> series = EnumSet.noneOf(HttpStatus.Series.class);
+
+        public Set<HttpStatus.Series> getSeries() {
+            return series;
+        }
+
+        public void setSeries(Set<HttpStatus.Series> series) {
+            this.series = series;
+        }
+    }
+
+    public static class Negotiation {
+
+        /**
+         * Maximum number of distinct Accept headers for which the error representation is memoized.
+         */
+        private int cacheSize = 64;
+
+        public int getCacheSize() {
+            return cacheSize;
+        }
+
+        public void setCacheSize(int cacheSize) {
+            this.cacheSize = cacheSize;
+        }
+    }
+
+    public static class ErrorPage {
+
+        /**
+         * Whether the 404 fast paths serve a pre-rendered whitelabel error page to browsers. This bypasses custom
+         * error views, so only enable it when the application has none.
+         */
+        private boolean enabled;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    public static class Metrics {
+
+        /**
+         * Whether problem responses are recorded in the "http.server.problems" timer, when a MeterRegistry is
+         * available.
+         */
+        private boolean enabled = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    public static class LazyErrorInfrastructure {
+
+        /**
+         * Whether the error controller, the whitelabel error view, the error web exception handler and the
+         * ResponseEntityExceptionHandler beans are created on the first error, instead of at startup.
+         */
+        private boolean enabled = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    public static class StaticResourceIndex {
+
+        /**
+         * Whether the static resource handlers answer a 404 for paths that are not in an index of their locations
+         * built at startup, instead of looking them up in every location. Only handlers whose locations are all on
+         * the class path are indexed, handlers with file system locations always look the paths up.
+         */
+        private boolean enabled = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    public static class ResourceMissCache {
+
+        /**
+         * Whether the paths for which a static resource handler found nothing are remembered, so repeated requests
+         * for them are answered with a 404 without looking them up again.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of missing paths to remember.
+         */
+        private int maximumSize = 1024;
+
+        /**
+         * How long a missing path is remembered.
+         */
+        private Duration timeToLive = Duration.ofMinutes(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(int maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
+
+    public static class ErrorStorm {
+
+        /**
+         * Whether the server errors of the catch-all exception handlers are replaced by a minimal problem, and
+         * problem exceptions skip their stack trace, while the rate of server errors is above the threshold.
+         */
+        private boolean enabled;
+
+        /**
+         * Length of the sliding window over which the error rate is measured.
+         */
+        private Duration window = Duration.ofSeconds(10);
+
+        /**
+         * Rate of server errors, between 0 and 1, at which a storm starts. It ends when the rate drops below half of
+         * it.
+         */
+        private double threshold = 0.5;
+
+        /**
+         * Minimum number of requests within the window before a storm can start.
+         */
+        private long minimumRequests = 20;
+
+        /**
+         * Status of the minimal problem.
+         */
+        private HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+
+        /**
+         * Value of the Retry-After header of the minimal problem.
+         */
+        private Duration retryAfter = Duration.ofSeconds(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public double getThreshold() {
+            return threshold;
+        }
+
+        public void setThreshold(double threshold) {
+            this.threshold = threshold;
+        }
+
+        public long getMinimumRequests() {
+            return minimumRequests;
+        }
+
+        public void setMinimumRequests(long minimumRequests) {
+            this.minimumRequests = minimumRequests;
+        }
+
+        public HttpStatus getStatus() {
+            return status;
+        }
+
+        public void setStatus(HttpStatus status) {
+            this.status = status;
+        }
+
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+
+        public void setRetryAfter(Duration retryAfter) {
+            this.retryAfter = retryAfter;
+        }
+    }
+
+    public static class ExceptionReporting {
+
+        /**
+         * Whether the exceptions behind server error problems are reported in the background, in deduplicated
+         * batches, instead of on the request thread.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Number of reports that can wait to be written. Reports are dropped when it is reached.
+         */
+        private int bufferSize = 4096;
+
+        /**
+         * Maximum number of reports that are deduplicated and written at once.
+         */
+        private int batchSize = 256;
+
+        /**
+         * How long a report waits at most before it is written.
+         */
+        private Duration flushInterval = Duration.ofMillis(500);
+
+        /**
+         * Rates, between 0 and 1, at which exceptions are reported, by fully qualified type name. An exception
+         * takes the rate of its closest type with a rate, and is always reported when there is none.
+         */
+        private Map<String, Double> sampleRates = new LinkedHashMap<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public Map<String, Double> getSampleRates() {
+            return sampleRates;
+        }
+
+        public void setSampleRates(Map<String, Double> sampleRates) {
+            this.sampleRates = sampleRates;
+        }
+    }
+
+    public static class Caching {
+
+        /**
+         * Whether the problem responses of the cacheable statuses, from the 404 fast path or the message converters,
+         * carry caching headers and an entity tag, and are answered with a 304 when the If-None-Match header matches.
+         */
+        private boolean enabled;
+
+        /**
+         * Statuses of the problem responses that are cacheable.
+         */
+        private Set<HttpStatus> statuses = EnumSet.of(HttpStatus.NOT_FOUND);
+
+        /**
+         * How long a problem response may be cached, kept short as the missing resource may be added later.
+         */
+        private Duration maxAge = Duration.ofSeconds(10);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Set<HttpStatus> getStatuses() {
+            return statuses;
+        }
+
+        public void setStatuses(Set<HttpStatus> statuses) {
+            this.statuses = statuses;
+        }
+
+        public Duration getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(Duration maxAge) {
+            this.maxAge = maxAge;
+        }
+    }
+
+    public static class HandlerMappingErrorResponses {
+
+        /**
+         * Whether the handler mappings answer the requests they cannot map with a 404 or 405 error response, instead
+         * of the framework throwing an exception that is then resolved into the same problem. Installed through the
+         * WebMvcRegistrations or WebFluxRegistrations of the problem support, so it is off, with a warning at
+         * startup, when the application declares its own.
+         */
+        private boolean enabled;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    public static class Cbor {
+
+        /**
+         * Whether problems are also written as "application/problem+cbor", for clients that prefer it over JSON.
+         * Requires jackson-dataformat-cbor on the classpath.
+         */
+        private boolean enabled = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    public static class NotFoundFastPath {
+
+        /**
+         * Whether a 404 of the static resource handler is turned into a problem response directly, instead of being
+         * handled by the default error handling of the stack.
+         */
+        private boolean enabled = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    //******************************************************************************************************************
+    //** Servlet *******************************************************************************************************
+    //******************************************************************************************************************
+
+    public static class Servlet {
+
+        private final NotFoundFastPath notFoundFastPath = new NotFoundFastPath();
+
+        private final ExceptionHandlerIndex exceptionHandlerIndex = new ExceptionHandlerIndex();
+
+        public NotFoundFastPath getNotFoundFastPath() {
+            return notFoundFastPath;
+        }
+
+        public ExceptionHandlerIndex getExceptionHandlerIndex() {
+            return exceptionHandlerIndex;
+        }
+
+        public static class ExceptionHandlerIndex {
+
+            /**
+             * Whether the @ExceptionHandler methods of the @ControllerAdvice beans are looked up through an index
+             * built at startup, instead of walking all advices for every exception. Installed through the
+             * WebMvcRegistrations of the problem support, so it is off, with a warning at startup, when the
+             * application declares its own.
+             */
+            private boolean enabled = true;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+        }
+    }
+
+    //******************************************************************************************************************
+    //** Reactive ******************************************************************************************************
+    //******************************************************************************************************************
+
+    public static class Reactive {
+
+        private final NotFoundFastPath notFoundFastPath = new NotFoundFastPath();
+
+        private final ConstantProblems constantProblems = new ConstantProblems();
+
+        public NotFoundFastPath getNotFoundFastPath() {
+            return notFoundFastPath;
+        }
+
+        public ConstantProblems getConstantProblems() {
+            return constantProblems;
+        }
+
+        public static class ConstantProblems {
+
+            /**
+             * Whether ConstantProblem results are written directly with their pre-encoded body, instead of through
+             * the ResponseEntityResultHandler.
+             */
+            private boolean enabled = true;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+        }
+    }
+
+}
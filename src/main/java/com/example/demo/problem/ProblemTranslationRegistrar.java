@@ -0,0 +1,14 @@
+package com.example.demo.problem;
+
+/**
+ * Registers exception translations in the {@link ProblemTranslations} of the application.
+ * <p>
+ * Declare implementations as beans, they are applied once at startup, in their order. Every exception type can only
+ * be registered once.
+ */
+@FunctionalInterface
+public interface ProblemTranslationRegistrar {
+
+    void register(ProblemTranslations.Builder translations);
+
+}
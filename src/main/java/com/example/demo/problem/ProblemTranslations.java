@@ -0,0 +1,96 @@
+package com.example.demo.problem;
+
+import org.springframework.http.ProblemDetail;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of exception to {@link ProblemDetail} translations, shared by the servlet and the reactive stack.
+ * <p>
+ * An exception is translated by the translator registered for its closest type: its own class, or else the nearest
+ * superclass that has one. The translator of every exception class is resolved once and then kept in a flat lookup
+ * table, so translating costs a single lookup. The table holds the registered types from the start, other classes
+ * are added the first time they are seen.
+ * <p>
+ * The stacks only consult the registry for exceptions that the framework did not handle itself, like the
+ * {@code ResponseEntityExceptionHandler} does for its exceptions, so a catch-all translation for {@link Exception}
+ * never takes precedence over those.
+ */
+public final class ProblemTranslations {
+
+    private static final ProblemTranslator<Throwable> NONE = exception -> null;
+
+    private final Map<Class<?>, ProblemTranslator<Throwable>> translators = new ConcurrentHashMap<>();
+
+    private ProblemTranslations(Map<Class<?>, ProblemTranslator<Throwable>> registered) {
+        this.translators.putAll(registered);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the problem detail for the given exception, or {@code null} if no translation applies to it.
+     */
+    @Nullable
+    public ProblemDetail translate(Throwable exception) {
+        ProblemTranslator<Throwable> translator = translatorFor(exception.getClass());
+        return (translator != NONE ? translator.translate(exception) : null);
+    }
+
+    /**
+     * Returns whether a translation applies to the given type of exception.
+     */
+    public boolean canTranslate(Class<? extends Throwable> exceptionType) {
+        return translatorFor(exceptionType) != NONE;
+    }
+
+    private ProblemTranslator<Throwable> translatorFor(Class<?> exceptionType) {
+        ProblemTranslator<Throwable> translator = translators.get(exceptionType);
+        if (translator == null) {
+            translator = resolve(exceptionType.getSuperclass());
+            translators.putIfAbsent(exceptionType, translator);
+        }
+        return translator;
+    }
+
+    private ProblemTranslator<Throwable> resolve(@Nullable Class<?> exceptionType) {
+        return (exceptionType != null && Throwable.class.isAssignableFrom(exceptionType) ? translatorFor(exceptionType) : NONE);
+    }
+
+    public static final class Builder {
+
+        private final Map<Class<?>, ProblemTranslator<Throwable>> translators = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Registers the translator for the given type of exception and its subclasses.
+         */
+        @SuppressWarnings("unchecked")
+        public <T extends Throwable> Builder translate(Class<T> exceptionType, ProblemTranslator<? super T> translator) {
+            Assert.state(!translators.containsKey(exceptionType), () -> "A translation for " + exceptionType.getName() + " is already registered");
+            translators.put(exceptionType, (ProblemTranslator<Throwable>) translator);
+            return this;
+        }
+
+        /**
+         * Registers a constant problem for the given type of exception and its subclasses. The problem is shared by
+         * all responses, it must not be changed once registered.
+         */
+        public Builder constant(Class<? extends Throwable> exceptionType, ProblemDetail problemDetail) {
+            return translate(exceptionType, exception -> problemDetail);
+        }
+
+        public ProblemTranslations build() {
+            return new ProblemTranslations(translators);
+        }
+    }
+
+}
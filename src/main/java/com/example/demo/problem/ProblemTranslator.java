@@ -0,0 +1,15 @@
+package com.example.demo.problem;
+
+import org.springframework.http.ProblemDetail;
+
+/**
+ * Translates an exception into the problem detail of its response.
+ *
+ * @param <T> the type of exception
+ */
+@FunctionalInterface
+public interface ProblemTranslator<T extends Throwable> {
+
+    ProblemDetail translate(T exception);
+
+}
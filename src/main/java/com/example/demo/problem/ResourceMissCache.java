@@ -0,0 +1,83 @@
+package com.example.demo.problem;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache of the paths for which a static resource handler found no resource, so a repeated miss is answered
+ * with a 404 without running the resource resolvers again.
+ * <p>
+ * Misses are kept per handler, in a {@link GenerationalCache} bounded by size that is looked up without locking, and
+ * expire after a fixed time to live, so resources that appear later are eventually served. {@link #clear()}
+ * invalidates all misses right away, for instance after the static resources were reloaded in development.
+ */
+public class ResourceMissCache {
+
+    private final long timeToLiveNanos;
+
+    private final LongSupplier nanoClock;
+
+    /**
+     * Values are the {@link System#nanoTime()} at which the miss expires.
+     */
+    private final GenerationalCache<Key, Long> misses;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    public ResourceMissCache(int maximumSize, Duration timeToLive) {
+        this(maximumSize, timeToLive, System::nanoTime);
+    }
+
+    ResourceMissCache(int maximumSize, Duration timeToLive, LongSupplier nanoClock) {
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.nanoClock = nanoClock;
+        this.misses = new GenerationalCache<>(maximumSize);
+    }
+
+    /**
+     * Returns whether the given handler recently found no resource for the given path.
+     */
+    public boolean isMiss(Object handler, String path) {
+        Key key = new Key(handler, path);
+        Long expiresAt = misses.get(key);
+        boolean miss = (expiresAt != null && expiresAt - nanoClock.getAsLong() > 0);
+        if (expiresAt != null && !miss) {
+            misses.remove(key);
+        }
+        (miss ? hitCount : missCount).increment();
+        return miss;
+    }
+
+    /**
+     * Records that the given handler found no resource for the given path.
+     */
+    public void put(Object handler, String path) {
+        misses.put(new Key(handler, path), nanoClock.getAsLong() + timeToLiveNanos);
+    }
+
+    public void clear() {
+        misses.clear();
+    }
+
+    public Statistics getStatistics() {
+        return new Statistics(hitCount.sum(), missCount.sum(), misses.size());
+    }
+
+    /**
+     * Handlers are compared by identity, resource handlers do not implement {@code equals}.
+     */
+    private record Key(Object handler, String path) {
+    }
+
+    public record Statistics(long hitCount, long missCount, int size) {
+
+        public double hitRate() {
+            long requestCount = hitCount + missCount;
+            return (requestCount == 0 ? 1.0 : (double) hitCount / requestCount);
+        }
+    }
+
+}
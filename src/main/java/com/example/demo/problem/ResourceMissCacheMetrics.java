@@ -0,0 +1,31 @@
+package com.example.demo.problem;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Registers the meters of a {@link ResourceMissCache}, named like the cache meters of Micrometer: lookups are counted
+ * by result, so the hit rate is {@code hit / (hit + miss)}.
+ */
+public class ResourceMissCacheMetrics {
+
+    public static final String GETS_METRIC_NAME = "static.resources.miss.cache.gets";
+
+    public static final String SIZE_METRIC_NAME = "static.resources.miss.cache.size";
+
+    public ResourceMissCacheMetrics(ResourceMissCache cache, MeterRegistry registry) {
+        FunctionCounter.builder(GETS_METRIC_NAME, cache, c -> c.getStatistics().hitCount())
+                .description("Lookups in the cache of missing static resource paths")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder(GETS_METRIC_NAME, cache, c -> c.getStatistics().missCount())
+                .description("Lookups in the cache of missing static resource paths")
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder(SIZE_METRIC_NAME, cache, c -> c.getStatistics().size())
+                .description("Number of static resource paths known to be missing")
+                .register(registry);
+    }
+
+}
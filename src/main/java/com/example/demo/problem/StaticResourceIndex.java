@@ -0,0 +1,130 @@
+package com.example.demo.problem;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.ContextResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Index of the paths below the locations of a static resource handler, built once at startup, which tells whether a
+ * request path can be served by that handler at all.
+ * <p>
+ * The resource handlers of both stacks are mapped on {@code /**} by default, so every path that does not match a
+ * route ends up probing each of their locations before giving up with a 404. As the handlers are only selected when
+ * no route matched, this index only needs to know the static resources to answer "definitely not found" with a
+ * single lookup.
+ * <p>
+ * The index errs on the side of serving: it holds every file and directory found in the locations, compared
+ * case-insensitively, and {@link #isAbsent} only answers {@code true} for plain paths that the handler would resolve
+ * as they are.
+ * <p>
+ * Only class path locations, in jars or in the build output, are indexed, as their content is fixed when the
+ * application starts. A handler with any other location, like a {@code file:} directory or the document root of the
+ * servlet context, can get resources while the application runs, so it is not indexed at all and every path falls
+ * through to the handler.
+ */
+public final class StaticResourceIndex {
+
+    private final Set<String> paths;
+
+    private StaticResourceIndex(Set<String> paths) {
+        this.paths = Set.copyOf(paths);
+    }
+
+    /**
+     * Scans the given locations of a resource handler, or returns {@code null} when one of them is not a class path
+     * location or can not be scanned, so the handler can not be indexed.
+     */
+    @Nullable
+    public static StaticResourceIndex scan(ResourcePatternResolver resolver, List<? extends Resource> locations) {
+        Set<String> paths = new HashSet<>();
+        try {
+            for (Resource location : locations) {
+                if (!(location instanceof ClassPathResource)) {
+                    return null;
+                }
+                for (Resource root : resolver.getResources(locationPattern(location))) {
+                    String rootKey = key(root);
+                    for (Resource resource : resolver.getResources(rootKey + "**")) {
+                        String key = key(resource);
+                        if (!key.startsWith(rootKey)) {
+                            return null;
+                        }
+                        paths.add(normalize(StringUtils.uriDecode(key.substring(rootKey.length()), StandardCharsets.UTF_8)));
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException ex) {
+            return null;
+        }
+        return new StaticResourceIndex(paths);
+    }
+
+    /**
+     * Returns whether the handler definitely has no resource for the given path within its mapping.
+     */
+    public boolean isAbsent(String path) {
+        String normalized = normalize(path);
+        return !normalized.isEmpty() && isPlain(normalized) && !paths.contains(normalized);
+    }
+
+    public int size() {
+        return paths.size();
+    }
+
+    /**
+     * Class path locations are resolved on the whole class path, as a handler picks the first one that has the
+     * resource.
+     */
+    private static String locationPattern(Resource location) {
+        return ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX + ((ClassPathResource) location).getPath();
+    }
+
+    private static String key(Resource resource) throws IOException {
+        if (resource instanceof ContextResource contextResource) {
+            return contextResource.getPathWithinContext();
+        }
+        return resource.getURL().toExternalForm();
+    }
+
+    private static String normalize(String path) {
+        int start = 0;
+        while (start < path.length() && path.charAt(start) == '/') {
+            start++;
+        }
+        int end = path.length();
+        while (end > start && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        return path.substring(start, end).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Paths with anything but unreserved characters and single slashes are left to the handler, which may decode or
+     * reject them in its own way.
+     */
+    private static boolean isPlain(String path) {
+        if (path.contains("//") || path.contains("..")) {
+            return false;
+        }
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            boolean unreserved = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '.' || c == '_' || c == '~' || c == '/';
+            if (!unreserved) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
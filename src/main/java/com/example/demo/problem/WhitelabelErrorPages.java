@@ -0,0 +1,76 @@
+package com.example.demo.problem;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pre-rendered whitelabel error pages, like the ones rendered by Spring Boot when no error view is configured.
+ * <p>
+ * The page is rendered once per status, only the timestamp is substituted per response. This makes serving the page
+ * as cheap as serving a pre-encoded problem, without resolving and rendering an error view. As the timestamp is the
+ * only difference between the pages of a status, they share a weak entity tag.
+ */
+public class WhitelabelErrorPages {
+
+    private static final byte[] PREFIX = ("<html><body><h1>Whitelabel Error Page</h1>"
+            + "<p>This application has no explicit mapping for /error, so you are seeing this as a fallback.</p>"
+            + "<div id='created'>").getBytes(StandardCharsets.UTF_8);
+
+    private final Map<Integer, byte[]> suffixes = new ConcurrentHashMap<>();
+
+    private final Map<Integer, String> entityTags = new ConcurrentHashMap<>();
+
+    public void writeTo(OutputStream outputStream, HttpStatusCode status, Date timestamp) throws IOException {
+        outputStream.write(PREFIX);
+        outputStream.write(timestamp(timestamp));
+        outputStream.write(suffix(status));
+    }
+
+    public DataBuffer toDataBuffer(DataBufferFactory bufferFactory, HttpStatusCode status, Date timestamp) {
+        byte[] timestampBytes = timestamp(timestamp);
+        byte[] suffix = suffix(status);
+        DataBuffer buffer = bufferFactory.allocateBuffer(PREFIX.length + timestampBytes.length + suffix.length);
+        buffer.write(PREFIX);
+        buffer.write(timestampBytes);
+        buffer.write(suffix);
+        return buffer;
+    }
+
+    /**
+     * Returns the weak entity tag of the page of the given status, computed from the page without its timestamp.
+     */
+    public String getEntityTag(HttpStatusCode status) {
+        return entityTags.computeIfAbsent(status.value(), value -> {
+            byte[] suffix = suffix(status);
+            byte[] page = new byte[PREFIX.length + suffix.length];
+            System.arraycopy(PREFIX, 0, page, 0, PREFIX.length);
+            System.arraycopy(suffix, 0, page, PREFIX.length, suffix.length);
+            return "W/\"" + DigestUtils.md5DigestAsHex(page) + "\"";
+        });
+    }
+
+    private byte[] suffix(HttpStatusCode status) {
+        return suffixes.computeIfAbsent(status.value(), value -> {
+            HttpStatus resolved = HttpStatus.resolve(value);
+            String error = (resolved != null ? resolved.getReasonPhrase() : "Http Status " + value);
+            return ("</div><div>There was an unexpected error (type=" + HtmlUtils.htmlEscape(error) + ", status=" + value + ").</div></body></html>")
+                    .getBytes(StandardCharsets.UTF_8);
+        });
+    }
+
+    private static byte[] timestamp(Date timestamp) {
+        return timestamp.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+}
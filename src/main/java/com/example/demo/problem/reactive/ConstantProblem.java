@@ -0,0 +1,94 @@
+package com.example.demo.problem.reactive;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
+import org.springframework.lang.Nullable;
+import org.springframework.web.ErrorResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * A problem response that is the same for every request, apart from its {@code instance}, for use as the result of
+ * an {@code @ExceptionHandler} method.
+ * <p>
+ * Create it once, for instance in a constant, and return it, or the shared publisher of {@link #mono()}, from the
+ * handler method. The {@link ConstantProblemResultHandler} recognizes it and writes the body pre-encoded by the
+ * {@link com.example.demo.problem.ProblemBodyCache} of the application context directly, without assembling a
+ * publisher pipeline for the response. The problem itself holds no state of a context, so it can be shared by all.
+ * Where it is not recognized, it is handled like any other {@link ErrorResponse}.
+ * <p>
+ * The problem is copied on creation, and again by {@link #getBody()}, so the framework can not change it when it sets
+ * the {@code instance}. Only problems with scalar extension properties can be pre-encoded, others are always handled
+ * like any other {@link ErrorResponse}.
+ */
+public final class ConstantProblem implements ErrorResponse {
+
+    private final ProblemDetail problemDetail;
+
+    private final String problemType;
+
+    private final Mono<ConstantProblem> mono;
+
+    private ConstantProblem(ProblemDetail problemDetail) {
+        this.problemDetail = copy(problemDetail);
+        this.problemType = problemDetail.getType().toString();
+        this.mono = Mono.just(this);
+    }
+
+    public static ConstantProblem of(ProblemDetail problemDetail) {
+        return new ConstantProblem(problemDetail);
+    }
+
+    public static ConstantProblem of(HttpStatusCode status, @Nullable String detail) {
+        return new ConstantProblem(ProblemDetail.forStatusAndDetail(status, detail));
+    }
+
+    /**
+     * Returns a publisher of this problem that is shared by all requests.
+     */
+    public Mono<ConstantProblem> mono() {
+        return mono;
+    }
+
+    @Override
+    public HttpStatusCode getStatusCode() {
+        return HttpStatusCode.valueOf(problemDetail.getStatus());
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return HttpHeaders.EMPTY;
+    }
+
+    /**
+     * Returns a copy of the problem, which the caller is free to change.
+     */
+    @Override
+    public ProblemDetail getBody() {
+        return copy(problemDetail);
+    }
+
+    ProblemDetail getProblemDetail() {
+        return problemDetail;
+    }
+
+    String getProblemType() {
+        return problemType;
+    }
+
+    private static ProblemDetail copy(ProblemDetail problemDetail) {
+        ProblemDetail copy = ProblemDetail.forStatus(problemDetail.getStatus());
+        copy.setType(problemDetail.getType());
+        copy.setTitle(problemDetail.getTitle());
+        copy.setDetail(problemDetail.getDetail());
+        copy.setInstance(problemDetail.getInstance());
+        Map<String, Object> properties = problemDetail.getProperties();
+        if (properties != null) {
+            properties.forEach(copy::setProperty);
+        }
+        return copy;
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.example.demo.problem.reactive;
+
+import com.example.demo.problem.ErrorRepresentation;
+import com.example.demo.problem.ErrorRepresentationResolver;
+import com.example.demo.problem.ProblemBody;
+import com.example.demo.problem.ProblemBodyCache;
+import com.example.demo.problem.ProblemOrigin;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.HandlerResult;
+import org.springframework.web.reactive.HandlerResultHandler;
+import org.springframework.web.reactive.result.method.annotation.ResponseEntityResultHandler;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.Fuseable;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Writes a {@link ConstantProblem}, returned as is or in its shared {@link ConstantProblem#mono() publisher}, as
+ * {@code application/problem+json} directly to the response.
+ * <p>
+ * The body is encoded once per constant problem and application context, and kept in its {@link ProblemBodyCache},
+ * so writing it only splices in the {@code instance} and wraps it in a buffer, on the thread that handles the result.
+ * The content negotiation, body conversion and publisher operators of the {@link ResponseEntityResultHandler} are
+ * skipped. Requests whose {@code Accept} headers, all of them, do not resolve to a JSON problem, and problems that can
+ * not be pre-encoded, are left to the {@link ResponseEntityResultHandler}, before anything is encoded.
+ */
+public class ConstantProblemResultHandler implements HandlerResultHandler, Ordered {
+
+    private final ProblemBodyCache bodyCache;
+
+    private final ErrorRepresentationResolver representationResolver;
+
+    private final ObjectProvider<ResponseEntityResultHandler> delegate;
+
+    public ConstantProblemResultHandler(ProblemBodyCache bodyCache, ErrorRepresentationResolver representationResolver,
+                                        ObjectProvider<ResponseEntityResultHandler> delegate) {
+        this.bodyCache = bodyCache;
+        this.representationResolver = representationResolver;
+        this.delegate = delegate;
+    }
+
+    /**
+     * In front of the {@link ProblemOriginHandlerResultHandler} and the {@link ResponseEntityResultHandler}.
+     */
+    @Override
+    public int getOrder() {
+        return -2;
+    }
+
+    @Override
+    public boolean supports(HandlerResult result) {
+        return (constantProblem(result.getReturnValue()) != null && delegate.getObject().supports(result));
+    }
+
+    @Override
+    public Mono<Void> handleResult(ServerWebExchange exchange, HandlerResult result) {
+        ConstantProblem problem = constantProblem(result.getReturnValue());
+        if (result.getHandler() instanceof HandlerMethod handlerMethod && handlerMethod.hasMethodAnnotation(ExceptionHandler.class)) {
+            exchange.getAttributes().put(ProblemOrigin.ATTRIBUTE,
+                    ProblemOrigin.forExceptionHandler(handlerMethod.getBeanType(), handlerMethod.getMethod()));
+            exchange.getAttributes().put(ProblemOrigin.PROBLEM_TYPE_ATTRIBUTE, problem.getProblemType());
+        }
+
+        List<String> accept = exchange.getRequest().getHeaders().get(HttpHeaders.ACCEPT);
+        if (representationResolver.resolve(accept != null ? String.join(",", accept) : null) != ErrorRepresentation.PROBLEM_JSON) {
+            return delegate.getObject().handleResult(exchange, result);
+        }
+        ProblemBody body = bodyCache.getConstant(problem, problem.getProblemDetail());
+        if (body == null) {
+            return delegate.getObject().handleResult(exchange, result);
+        }
+
+        ServerHttpResponse response = exchange.getResponse();
+        DataBuffer buffer = body.toDataBuffer(response.bufferFactory(), URI.create(exchange.getRequest().getPath().value()));
+        response.setStatusCode(problem.getStatusCode());
+        response.getHeaders().setContentType(MediaType.APPLICATION_PROBLEM_JSON);
+        response.getHeaders().setContentLength(buffer.readableByteCount());
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    /**
+     * Recognizes a {@link ConstantProblem} returned as is or in a {@link Mono#just(Object)}, which holds its value
+     * without having to subscribe to it.
+     */
+    @Nullable
+    private static ConstantProblem constantProblem(@Nullable Object value) {
+        if (value instanceof Fuseable.ScalarCallable<?> scalar) {
+            try {
+                value = scalar.call();
+            } catch (Exception ex) {
+                return null;
+            }
+        }
+        return (value instanceof ConstantProblem problem ? problem : null);
+    }
+
+}
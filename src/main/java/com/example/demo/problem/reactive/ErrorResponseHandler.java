@@ -0,0 +1,42 @@
+package com.example.demo.problem.reactive;
+
+import com.example.demo.problem.HandlerMappingErrorResponse;
+import com.example.demo.problem.ProblemOrigin;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.ErrorResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.result.method.annotation.ResponseEntityResultHandler;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * The handler of the requests that the handler mappings of the problem support cannot map, returning the
+ * {@link HandlerMappingErrorResponse} that the mapping left in the exchange attributes.
+ * <p>
+ * It is a {@link HandlerMethod}, so the {@link ResponseEntityResultHandler} writes the error response exactly like
+ * it writes the one of an {@code @ExceptionHandler} method, with the same content negotiation and message writers.
+ */
+public final class ErrorResponseHandler {
+
+    private static final String ERROR_RESPONSE_ATTRIBUTE = ErrorResponseHandler.class.getName() + ".ERROR_RESPONSE";
+
+    private static final HandlerMethod HANDLER_METHOD = new HandlerMethod(new ErrorResponseHandler(),
+            ClassUtils.getMethod(ErrorResponseHandler.class, "handle", ServerWebExchange.class));
+
+    private ErrorResponseHandler() {
+    }
+
+    /**
+     * Returns the handler for the given error response.
+     */
+    static HandlerMethod forErrorResponse(ServerWebExchange exchange, HandlerMappingErrorResponse errorResponse) {
+        exchange.getAttributes().put(ERROR_RESPONSE_ATTRIBUTE, errorResponse);
+        exchange.getAttributes().put(ProblemOrigin.ATTRIBUTE, ProblemOrigin.HANDLER_MAPPING);
+        exchange.getAttributes().put(ProblemOrigin.PROBLEM_TYPE_ATTRIBUTE, errorResponse.getBody().getType().toString());
+        return HANDLER_METHOD;
+    }
+
+    public ErrorResponse handle(ServerWebExchange exchange) {
+        return exchange.getRequiredAttribute(ERROR_RESPONSE_ATTRIBUTE);
+    }
+
+}
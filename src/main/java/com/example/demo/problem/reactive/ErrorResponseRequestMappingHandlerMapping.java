@@ -0,0 +1,63 @@
+package com.example.demo.problem.reactive;
+
+import com.example.demo.problem.HandlerMappingErrorResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.cors.reactive.CorsUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.result.method.RequestMappingInfo;
+import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.server.MethodNotAllowedException;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * {@link RequestMappingHandlerMapping} that maps a request whose path is mapped, but not for its HTTP method, to an
+ * {@link ErrorResponseHandler} returning a 405 {@link HandlerMappingErrorResponse}, instead of throwing a
+ * {@link MethodNotAllowedException}.
+ * <p>
+ * {@code OPTIONS} requests and the other mismatches, like an unsupported media type, are handled as before.
+ */
+public class ErrorResponseRequestMappingHandlerMapping extends RequestMappingHandlerMapping {
+
+    @Override
+    protected HandlerMethod handleNoMatch(Set<RequestMappingInfo> infos, ServerWebExchange exchange) throws Exception {
+        HttpMethod method = exchange.getRequest().getMethod();
+        if (method != HttpMethod.OPTIONS && !CorsUtils.isPreFlightRequest(exchange.getRequest())) {
+            Set<HttpMethod> allowedMethods = allowedMethodsOnMethodMismatch(infos, exchange);
+            if (allowedMethods != null) {
+                String detail = "Request method '" + method.name() + "' is not supported.";
+                return ErrorResponseHandler.forErrorResponse(exchange, HandlerMappingErrorResponse.methodNotAllowed(detail, allowedMethods));
+            }
+        }
+        return super.handleNoMatch(infos, exchange);
+    }
+
+    /**
+     * Returns the methods of the mappings whose patterns match, when there are some and none of them matches the
+     * method, like the {@code RequestMappingInfoHandlerMapping} does before throwing.
+     */
+    @Nullable
+    private static Set<HttpMethod> allowedMethodsOnMethodMismatch(Set<RequestMappingInfo> infos, ServerWebExchange exchange) {
+        Set<HttpMethod> allowedMethods = null;
+        for (RequestMappingInfo info : infos) {
+            if (info.getPatternsCondition().getMatchingCondition(exchange) == null) {
+                continue;
+            }
+            if (info.getMethodsCondition().getMatchingCondition(exchange) != null) {
+                return null;
+            }
+            if (allowedMethods == null) {
+                allowedMethods = new LinkedHashSet<>();
+            }
+            for (RequestMethod requestMethod : info.getMethodsCondition().getMethods()) {
+                allowedMethods.add(requestMethod.asHttpMethod());
+            }
+        }
+        return allowedMethods;
+    }
+
+}
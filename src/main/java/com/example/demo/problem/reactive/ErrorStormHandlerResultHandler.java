@@ -0,0 +1,78 @@
+package com.example.demo.problem.reactive;
+
+import com.example.demo.problem.DegradedProblem;
+import com.example.demo.problem.ErrorStorm;
+import com.example.demo.problem.ProblemBody;
+import com.example.demo.problem.ProblemBodyCache;
+import com.example.demo.problem.ProblemOrigin;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.HandlerResult;
+import org.springframework.web.reactive.HandlerResultHandler;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Writes the {@link DegradedProblem} from its pre-encoded body, with a {@code Retry-After} header, instead of the
+ * server error problems of the catch-all {@code @ExceptionHandler} methods while an {@link ErrorStorm} is active.
+ * <p>
+ * Like the {@link ProblemOriginHandlerResultHandler}, only problems that are available without subscribing are
+ * recognized. Outside a storm, it supports no results at all.
+ */
+public class ErrorStormHandlerResultHandler implements HandlerResultHandler, Ordered {
+
+    private final ErrorStorm errorStorm;
+
+    private final DegradedProblem degradedProblem;
+
+    private final ProblemBodyCache bodyCache;
+
+    public ErrorStormHandlerResultHandler(ErrorStorm errorStorm, DegradedProblem degradedProblem, ProblemBodyCache bodyCache) {
+        this.errorStorm = errorStorm;
+        this.degradedProblem = degradedProblem;
+        this.bodyCache = bodyCache;
+    }
+
+    /**
+     * In front of the {@link ConstantProblemResultHandler}, which has order -2.
+     */
+    @Override
+    public int getOrder() {
+        return -3;
+    }
+
+    @Override
+    public boolean supports(HandlerResult result) {
+        if (!errorStorm.isActive()
+                || !(result.getHandler() instanceof HandlerMethod handlerMethod)
+                || !handlerMethod.hasMethodAnnotation(ExceptionHandler.class)
+                || ProblemOrigin.forExceptionHandler(handlerMethod.getBeanType(), handlerMethod.getMethod()) != ProblemOrigin.CATCH_ALL_ADVICE) {
+            return false;
+        }
+        ProblemDetail problemDetail = ProblemOriginHandlerResultHandler.problemDetail(result.getReturnValue());
+        return (problemDetail != null && degradedProblem.replaces(problemDetail.getStatus()));
+    }
+
+    @Override
+    public Mono<Void> handleResult(ServerWebExchange exchange, HandlerResult result) {
+        ProblemDetail problemDetail = degradedProblem.getProblemDetail();
+        exchange.getAttributes().put(ProblemOrigin.ATTRIBUTE, ProblemOrigin.CATCH_ALL_ADVICE);
+        exchange.getAttributes().put(ProblemOrigin.PROBLEM_TYPE_ATTRIBUTE, problemDetail.getType().toString());
+
+        ServerHttpResponse response = exchange.getResponse();
+        ProblemBody body = bodyCache.get(problemDetail, MediaType.APPLICATION_PROBLEM_JSON);
+        DataBuffer buffer = body.toDataBuffer(response.bufferFactory(), null);
+        response.setStatusCode(degradedProblem.getStatus());
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, degradedProblem.getRetryAfter());
+        response.getHeaders().setContentType(MediaType.APPLICATION_PROBLEM_JSON);
+        response.getHeaders().setContentLength(buffer.readableByteCount());
+        return response.writeWith(Mono.just(buffer));
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.example.demo.problem.reactive;
+
+import com.example.demo.problem.ErrorStorm;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Records the status of every response in the {@link ErrorStorm}.
+ * <p>
+ * The status is taken when the response is committed, after the web exception handlers have rendered any error.
+ */
+public class ErrorStormWebFilter implements WebFilter {
+
+    private final ErrorStorm errorStorm;
+
+    public ErrorStormWebFilter(ErrorStorm errorStorm) {
+        this.errorStorm = errorStorm;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.beforeCommit(() -> {
+            HttpStatusCode status = response.getStatusCode();
+            errorStorm.record(status != null ? status.value() : HttpStatus.OK.value());
+            return Mono.empty();
+        });
+        return chain.filter(exchange);
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.example.demo.problem.reactive;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.boot.web.reactive.error.ErrorWebExceptionHandler;
+import org.springframework.core.Ordered;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ErrorWebExceptionHandler} that creates the actual handler, a lazy bean, when it handles its first error.
+ * <p>
+ * The reactive HTTP handler collects all {@code WebExceptionHandler} beans when it is built, so a lazy handler would
+ * be created at startup anyway. This handler stands in for it, under its original name and with its order.
+ */
+public class LazyErrorWebExceptionHandler implements ErrorWebExceptionHandler, Ordered, BeanFactoryAware {
+
+    private static final String TARGET_SUFFIX = ".target";
+
+    private final String targetBeanName;
+
+    private final int order;
+
+    private BeanFactory beanFactory;
+
+    private volatile ErrorWebExceptionHandler target;
+
+    public LazyErrorWebExceptionHandler(String targetBeanName, int order) {
+        this.targetBeanName = targetBeanName;
+        this.order = order;
+    }
+
+    /**
+     * Returns the name under which the actual handler of the given bean is registered.
+     */
+    public static String targetBeanName(String beanName) {
+        return beanName + TARGET_SUFFIX;
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public int getOrder() {
+        return order;
+    }
+
+    @Override
+    public Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
+        return getTarget().handle(exchange, ex);
+    }
+
+    private ErrorWebExceptionHandler getTarget() {
+        ErrorWebExceptionHandler target = this.target;
+        if (target == null) {
+            target = beanFactory.getBean(targetBeanName, ErrorWebExceptionHandler.class);
+            this.target = target;
+        }
+        return target;
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.example.demo.problem.reactive;
+
+import com.example.demo.problem.HandlerMappingErrorResponse;
+import org.springframework.core.Ordered;
+import org.springframework.web.cors.reactive.CorsUtils;
+import org.springframework.web.reactive.DispatcherHandler;
+import org.springframework.web.reactive.handler.AbstractHandlerMapping;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * The last handler mapping, mapping the requests that no other handler mapping maps to an
+ * {@link ErrorResponseHandler} returning a 404 {@link HandlerMappingErrorResponse}, instead of letting the
+ * {@link DispatcherHandler} signal a {@link ResponseStatusException}.
+ * <p>
+ * Pre-flight requests are not mapped, so they are rejected as before.
+ */
+public class NotFoundErrorResponseWebHandlerMapping extends AbstractHandlerMapping {
+
+    public NotFoundErrorResponseWebHandlerMapping() {
+        setOrder(Ordered.LOWEST_PRECEDENCE);
+    }
+
+    @Override
+    protected Mono<?> getHandlerInternal(ServerWebExchange exchange) {
+        if (CorsUtils.isPreFlightRequest(exchange.getRequest())) {
+            return Mono.empty();
+        }
+        return Mono.just(ErrorResponseHandler.forErrorResponse(exchange, HandlerMappingErrorResponse.notFound(null)));
+    }
+
+}
@@ -0,0 +1,171 @@
+package com.example.demo.problem.reactive;
+
+import com.example.demo.problem.ErrorRepresentation;
+import com.example.demo.problem.ErrorRepresentationResolver;
+import com.example.demo.problem.ProblemBody;
+import com.example.demo.problem.ProblemBodyCache;
+import com.example.demo.problem.ProblemCaching;
+import com.example.demo.problem.ProblemDetailJsonWriter;
+import com.example.demo.problem.ProblemOrigin;
+import com.example.demo.problem.WhitelabelErrorPages;
+import org.springframework.boot.autoconfigure.web.reactive.error.DefaultErrorWebExceptionHandler;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.web.ErrorResponse;
+import org.springframework.web.reactive.DispatcherHandler;
+import org.springframework.web.reactive.resource.NoResourceFoundException;
+import org.springframework.web.reactive.resource.ResourceWebHandler;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebExceptionHandler;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+/**
+ * Renders a 404 of the framework that was not handled by the {@code ResponseEntityExceptionHandler}, like the error
+ * of the {@link ResourceWebHandler} mapped on {@code /**}, as a {@code application/problem+json} response.
+ * <p>
+ * It is ordered in front of the {@link DefaultErrorWebExceptionHandler}, which would otherwise render it as a JSON
+ * error attributes map. Requests that prefer {@code text/html} over JSON get the pre-rendered
+ * {@link WhitelabelErrorPages whitelabel error page} when it is enabled, otherwise they are left to the
+ * {@link DefaultErrorWebExceptionHandler}. Requests that prefer {@code application/problem+cbor} get the problem
+ * streamed by the CBOR {@link ProblemDetailJsonWriter writer}, when there is one.
+ * <p>
+ * With {@link ProblemCaching}, both representations carry caching headers, and a request whose
+ * {@code If-None-Match} matches the entity tag of the representation gets a {@code 304 Not Modified} without body.
+ */
+public class NotFoundProblemWebExceptionHandler implements WebExceptionHandler, Ordered {
+
+    private static final ProblemDetail NOT_FOUND = ProblemDetail.forStatus(HttpStatus.NOT_FOUND);
+
+    private static final String NOT_FOUND_TYPE = NOT_FOUND.getType().toString();
+
+    private static final MediaType TEXT_HTML_UTF8 = new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8);
+
+    private final ProblemBodyCache bodyCache;
+
+    private final ErrorRepresentationResolver representationResolver;
+
+    @Nullable
+    private final WhitelabelErrorPages errorPages;
+
+    @Nullable
+    private final ProblemCaching caching;
+
+    @Nullable
+    private final ProblemDetailJsonWriter cborWriter;
+
+    @Nullable
+    private final String cborEntityTag;
+
+    public NotFoundProblemWebExceptionHandler(ProblemBodyCache bodyCache, ErrorRepresentationResolver representationResolver,
+                                              @Nullable WhitelabelErrorPages errorPages, @Nullable ProblemCaching caching) {
+        this(bodyCache, representationResolver, errorPages, caching, null);
+    }
+
+    public NotFoundProblemWebExceptionHandler(ProblemBodyCache bodyCache, ErrorRepresentationResolver representationResolver,
+                                              @Nullable WhitelabelErrorPages errorPages, @Nullable ProblemCaching caching,
+                                              @Nullable ProblemDetailJsonWriter cborWriter) {
+        this.bodyCache = bodyCache;
+        this.representationResolver = representationResolver;
+        this.errorPages = errorPages;
+        this.caching = caching;
+        this.cborWriter = cborWriter;
+        this.cborEntityTag = (cborWriter != null ? ProblemCaching.entityTag(cborWriter.writeAsBytes(NOT_FOUND)) : null);
+    }
+
+    @Override
+    public int getOrder() {
+        return -2;
+    }
+
+    @Override
+    public Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
+        ServerHttpResponse response = exchange.getResponse();
+        if (!isNotFound(ex) || response.isCommitted()) {
+            return Mono.error(ex);
+        }
+
+        ErrorRepresentation representation = representationResolver.resolve(exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT));
+        if (representation == ErrorRepresentation.PROBLEM_JSON) {
+            exchange.getAttributes().put(ProblemOrigin.ATTRIBUTE, ProblemOrigin.NOT_FOUND_FAST_PATH);
+            exchange.getAttributes().put(ProblemOrigin.PROBLEM_TYPE_ATTRIBUTE, NOT_FOUND_TYPE);
+            ProblemBody body = bodyCache.get(NOT_FOUND, MediaType.APPLICATION_PROBLEM_JSON);
+            if (isNotModified(exchange, body.getEntityTag())) {
+                return response.setComplete();
+            }
+            URI instance = URI.create(exchange.getRequest().getPath().value());
+            return write(response, MediaType.APPLICATION_PROBLEM_JSON, body.toDataBuffer(response.bufferFactory(), instance));
+        }
+        if (representation == ErrorRepresentation.PROBLEM_CBOR && cborWriter != null) {
+            exchange.getAttributes().put(ProblemOrigin.ATTRIBUTE, ProblemOrigin.NOT_FOUND_FAST_PATH);
+            exchange.getAttributes().put(ProblemOrigin.PROBLEM_TYPE_ATTRIBUTE, NOT_FOUND_TYPE);
+            if (isNotModified(exchange, cborEntityTag)) {
+                return response.setComplete();
+            }
+            URI instance = URI.create(exchange.getRequest().getPath().value());
+            return write(response, representation.getMediaType(), cborWriter.write(NOT_FOUND, instance, response.bufferFactory()));
+        }
+        if (representation == ErrorRepresentation.HTML && errorPages != null) {
+            exchange.getAttributes().put(ProblemOrigin.ATTRIBUTE, ProblemOrigin.NOT_FOUND_FAST_PATH);
+            if (isNotModified(exchange, errorPages.getEntityTag(HttpStatus.NOT_FOUND))) {
+                return response.setComplete();
+            }
+            return write(response, TEXT_HTML_UTF8, errorPages.toDataBuffer(response.bufferFactory(), HttpStatus.NOT_FOUND, new Date()));
+        }
+        return Mono.error(ex);
+    }
+
+    /**
+     * Sets the caching headers when the 404 is cacheable, and the {@code 304} status when the client has the
+     * representation already.
+     */
+    private boolean isNotModified(ServerWebExchange exchange, String entityTag) {
+        String cacheControl = (caching != null ? caching.getCacheControl(exchange.getRequest().getMethod().name(), HttpStatus.NOT_FOUND.value()) : null);
+        if (cacheControl == null) {
+            return false;
+        }
+
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        headers.setCacheControl(cacheControl);
+        headers.setETag(entityTag);
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (!ProblemCaching.isNotModified(exchange.getRequest().getHeaders().get(HttpHeaders.IF_NONE_MATCH), entityTag)) {
+            return false;
+        }
+        exchange.getResponse().setStatusCode(HttpStatus.NOT_MODIFIED);
+        return true;
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, MediaType contentType, DataBuffer buffer) {
+        response.setStatusCode(HttpStatus.NOT_FOUND);
+        response.getHeaders().setContentType(contentType);
+        response.getHeaders().setContentLength(buffer.readableByteCount());
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    /**
+     * Only the 404s of the framework are taken over: the {@link NoResourceFoundException} of the resource handler,
+     * and the plain {@link ResponseStatusException} of the {@link DispatcherHandler} when no handler matches. A 404
+     * {@link ErrorResponse} of the application may carry its own detail, headers and properties, so it is left to
+     * the regular error handling.
+     */
+    private static boolean isNotFound(Throwable ex) {
+        if (ex instanceof NoResourceFoundException) {
+            return true;
+        }
+        return (ex.getClass() == ResponseStatusException.class && ex instanceof ResponseStatusException statusException
+                && statusException.getStatusCode().value() == HttpStatus.NOT_FOUND.value()
+                && statusException.getReason() == null && statusException.getHeaders().isEmpty());
+    }
+
+}
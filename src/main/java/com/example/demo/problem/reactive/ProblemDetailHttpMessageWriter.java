@@ -0,0 +1,164 @@
+package com.example.demo.problem.reactive;
+
+import com.example.demo.problem.ProblemBody;
+import com.example.demo.problem.ProblemBodyCache;
+import com.example.demo.problem.ProblemCaching;
+import com.example.demo.problem.ProblemDetailJsonWriter;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ReactiveHttpOutputMessage;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes {@link ProblemDetail problem details} as {@code application/problem+json} using the pre-encoded bodies of
+ * the {@link ProblemBodyCache}, wrapped in a {@link DataBuffer}. Problems that can not be cached are streamed into a
+ * buffer of the response by the {@link ProblemDetailJsonWriter}.
+ * <p>
+ * Created without a cache, it streams every problem in the format of the object mapper of the writer, as the given
+ * media type, like {@code application/problem+cbor}.
+ * <p>
+ * With {@link ProblemCaching}, problems of a cacheable status written in response to a request, like the ones of the
+ * {@code ResponseEntityExceptionHandler} for the {@code NoResourceFoundException} of the resource handler, get the
+ * caching headers. The entity tag is the one of the pre-encoded body, so problems that have none are cacheable without
+ * being conditional. A request whose {@code If-None-Match} matches the entity tag gets a {@code 304 Not Modified}
+ * without body.
+ * <p>
+ * This writer can not write arbitrary objects, so when registered as a custom codec it is placed in front of the
+ * Jackson encoder.
+ */
+public class ProblemDetailHttpMessageWriter implements HttpMessageWriter<ProblemDetail> {
+
+    @Nullable
+    private final ProblemBodyCache bodyCache;
+
+    private final ProblemDetailJsonWriter problemWriter;
+
+    private final MediaType mediaType;
+
+    @Nullable
+    private final ProblemCaching caching;
+
+    private final List<MediaType> writableMediaTypes;
+
+    public ProblemDetailHttpMessageWriter(ProblemBodyCache bodyCache, ProblemDetailJsonWriter jsonWriter) {
+        this(bodyCache, jsonWriter, null);
+    }
+
+    public ProblemDetailHttpMessageWriter(ProblemBodyCache bodyCache, ProblemDetailJsonWriter jsonWriter,
+                                          @Nullable ProblemCaching caching) {
+        this(bodyCache, jsonWriter, MediaType.APPLICATION_PROBLEM_JSON, caching);
+    }
+
+    public ProblemDetailHttpMessageWriter(ProblemDetailJsonWriter problemWriter, MediaType mediaType) {
+        this(problemWriter, mediaType, null);
+    }
+
+    public ProblemDetailHttpMessageWriter(ProblemDetailJsonWriter problemWriter, MediaType mediaType,
+                                          @Nullable ProblemCaching caching) {
+        this(null, problemWriter, mediaType, caching);
+    }
+
+    private ProblemDetailHttpMessageWriter(@Nullable ProblemBodyCache bodyCache, ProblemDetailJsonWriter problemWriter,
+                                           MediaType mediaType, @Nullable ProblemCaching caching) {
+        this.bodyCache = bodyCache;
+        this.problemWriter = problemWriter;
+        this.mediaType = mediaType;
+        this.writableMediaTypes = List.of(mediaType);
+        this.caching = caching;
+    }
+
+    @Override
+    public List<MediaType> getWritableMediaTypes() {
+        return writableMediaTypes;
+    }
+
+    @Override
+    public boolean canWrite(ResolvableType elementType, @Nullable MediaType mediaType) {
+        return ProblemDetail.class.isAssignableFrom(elementType.toClass())
+                && (mediaType == null || this.mediaType.isCompatibleWith(mediaType));
+    }
+
+    @Override
+    public Mono<Void> write(Publisher<? extends ProblemDetail> inputStream, ResolvableType elementType,
+                            @Nullable MediaType mediaType, ReactiveHttpOutputMessage message, Map<String, Object> hints) {
+
+        MediaType contentType = contentType(mediaType);
+        return Mono.from(inputStream).flatMap(problemDetail -> write(problemDetail, body(problemDetail, contentType), contentType, message));
+    }
+
+    @Override
+    public Mono<Void> write(Publisher<? extends ProblemDetail> inputStream, ResolvableType actualType,
+                            ResolvableType elementType, @Nullable MediaType mediaType, ServerHttpRequest request,
+                            ServerHttpResponse response, Map<String, Object> hints) {
+
+        if (caching == null) {
+            return write(inputStream, elementType, mediaType, response, hints);
+        }
+        MediaType contentType = contentType(mediaType);
+        return Mono.from(inputStream).flatMap(problemDetail -> {
+            ProblemBody body = body(problemDetail, contentType);
+            if (isNotModified(problemDetail, body, request, response)) {
+                return response.setComplete();
+            }
+            return write(problemDetail, body, contentType, response);
+        });
+    }
+
+    private MediaType contentType(@Nullable MediaType mediaType) {
+        return (mediaType != null && mediaType.isConcrete() ? mediaType : this.mediaType);
+    }
+
+    @Nullable
+    private ProblemBody body(ProblemDetail problemDetail, MediaType contentType) {
+        return (bodyCache != null ? bodyCache.get(problemDetail, contentType) : null);
+    }
+
+    private Mono<Void> write(ProblemDetail problemDetail, @Nullable ProblemBody body, MediaType contentType,
+                             ReactiveHttpOutputMessage message) {
+
+        DataBuffer buffer = (body != null ? body.toDataBuffer(message.bufferFactory(), problemDetail.getInstance())
+                : problemWriter.write(problemDetail, message.bufferFactory()));
+        message.getHeaders().setContentType(contentType);
+        message.getHeaders().setContentLength(buffer.readableByteCount());
+        return message.writeWith(Mono.just(buffer));
+    }
+
+    /**
+     * Sets the caching headers when the problem is cacheable, and the {@code 304} status when the client has the
+     * representation already.
+     */
+    private boolean isNotModified(ProblemDetail problemDetail, @Nullable ProblemBody body, ServerHttpRequest request,
+                                  ServerHttpResponse response) {
+
+        String cacheControl = caching.getCacheControl(request.getMethod().name(), problemDetail.getStatus());
+        if (cacheControl == null) {
+            return false;
+        }
+
+        HttpHeaders headers = response.getHeaders();
+        headers.setCacheControl(cacheControl);
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (body == null) {
+            return false;
+        }
+        headers.setETag(body.getEntityTag());
+        if (!ProblemCaching.isNotModified(request.getHeaders().get(HttpHeaders.IF_NONE_MATCH), body.getEntityTag())) {
+            return false;
+        }
+        response.setStatusCode(HttpStatus.NOT_MODIFIED);
+        return true;
+    }
+
+}
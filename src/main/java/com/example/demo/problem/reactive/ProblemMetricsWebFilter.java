@@ -0,0 +1,60 @@
+package com.example.demo.problem.reactive;
+
+import com.example.demo.problem.ProblemMetrics;
+import com.example.demo.problem.ProblemOrigin;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Records the problem responses in the {@link ProblemMetrics} when the response is committed.
+ * <p>
+ * An error that leaves the filter chain is handled by the {@code WebExceptionHandler}s, so it is recorded with the
+ * {@link ProblemOrigin#ERROR_WEB_EXCEPTION_HANDLER} origin, unless the handler that renders it stores a more specific
+ * one. Problems rendered by {@code @ExceptionHandler} methods get their origin from the
+ * {@link ProblemOriginHandlerResultHandler}, their exception is not exposed by the framework.
+ */
+public class ProblemMetricsWebFilter implements WebFilter, Ordered {
+
+    private final ProblemMetrics metrics;
+
+    public ProblemMetricsWebFilter(ProblemMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        long startTime = System.nanoTime();
+        exchange.getResponse().beforeCommit(() -> {
+            record(exchange, startTime);
+            return Mono.empty();
+        });
+        return chain.filter(exchange).doOnError(ex -> {
+            exchange.getAttributes().putIfAbsent(ProblemOrigin.ATTRIBUTE, ProblemOrigin.ERROR_WEB_EXCEPTION_HANDLER);
+            exchange.getAttributes().put(ProblemOrigin.EXCEPTION_ATTRIBUTE, ex);
+        });
+    }
+
+    private void record(ServerWebExchange exchange, long startTime) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        if (status == null || status.value() < 400) {
+            return;
+        }
+
+        ProblemOrigin origin = exchange.getAttribute(ProblemOrigin.ATTRIBUTE);
+        Throwable exception = exchange.getAttribute(ProblemOrigin.EXCEPTION_ATTRIBUTE);
+        metrics.record((origin != null ? origin : ProblemOrigin.OTHER), status.value(),
+                exchange.getAttribute(ProblemOrigin.PROBLEM_TYPE_ATTRIBUTE),
+                (exception != null ? exception.getClass() : null),
+                System.nanoTime() - startTime);
+    }
+
+}
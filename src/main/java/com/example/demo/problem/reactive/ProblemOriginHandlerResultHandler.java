@@ -0,0 +1,83 @@
+package com.example.demo.problem.reactive;
+
+import com.example.demo.problem.ProblemOrigin;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.ProblemDetail;
+import org.springframework.lang.Nullable;
+import org.springframework.web.ErrorResponse;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.HandlerResult;
+import org.springframework.web.reactive.HandlerResultHandler;
+import org.springframework.web.reactive.result.method.annotation.ResponseEntityResultHandler;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.Fuseable;
+import reactor.core.publisher.Mono;
+
+/**
+ * Stores the {@link ProblemOrigin origin} and problem type of the results of {@code @ExceptionHandler} methods in the
+ * exchange attributes, so they can be picked up by the {@link ProblemMetricsWebFilter}, and then delegates to the
+ * {@link ResponseEntityResultHandler}.
+ * <p>
+ * The problem type is only known for results that are available without subscribing, so a problem detail that is
+ * returned in a {@link Mono#just(Object)} is recognized, but one that is produced asynchronously is not.
+ */
+public class ProblemOriginHandlerResultHandler implements HandlerResultHandler, Ordered {
+
+    private final ObjectProvider<ResponseEntityResultHandler> delegate;
+
+    public ProblemOriginHandlerResultHandler(ObjectProvider<ResponseEntityResultHandler> delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * In front of the {@link ResponseEntityResultHandler}, which has order 0.
+     */
+    @Override
+    public int getOrder() {
+        return -1;
+    }
+
+    @Override
+    public boolean supports(HandlerResult result) {
+        return (result.getHandler() instanceof HandlerMethod handlerMethod
+                && handlerMethod.hasMethodAnnotation(ExceptionHandler.class)
+                && delegate.getObject().supports(result));
+    }
+
+    @Override
+    public Mono<Void> handleResult(ServerWebExchange exchange, HandlerResult result) {
+        HandlerMethod handlerMethod = (HandlerMethod) result.getHandler();
+        exchange.getAttributes().put(ProblemOrigin.ATTRIBUTE,
+                ProblemOrigin.forExceptionHandler(handlerMethod.getBeanType(), handlerMethod.getMethod()));
+
+        ProblemDetail problemDetail = problemDetail(result.getReturnValue());
+        if (problemDetail != null) {
+            exchange.getAttributes().put(ProblemOrigin.PROBLEM_TYPE_ATTRIBUTE, problemDetail.getType().toString());
+        }
+        return delegate.getObject().handleResult(exchange, result);
+    }
+
+    /**
+     * Returns the problem detail of a result that is available without subscribing, or {@code null}.
+     */
+    @Nullable
+    static ProblemDetail problemDetail(@Nullable Object value) {
+        if (value instanceof Fuseable.ScalarCallable<?> scalar) {
+            try {
+                value = scalar.call();
+            } catch (Exception ex) {
+                return null;
+            }
+        }
+        if (value instanceof HttpEntity<?> entity) {
+            value = entity.getBody();
+        } else if (value instanceof ErrorResponse errorResponse) {
+            value = errorResponse.getBody();
+        }
+        return (value instanceof ProblemDetail problemDetail ? problemDetail : null);
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.example.demo.problem.reactive;
+
+import org.springframework.boot.autoconfigure.web.reactive.WebFluxRegistrations;
+import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
+
+/**
+ * Replaces the Webflux infrastructure components used by the problem support. Spring Boot only applies a single
+ * {@link WebFluxRegistrations} bean, so all replacements are made here.
+ */
+public class ProblemSupportWebFluxRegistrations implements WebFluxRegistrations {
+
+    @Override
+    public RequestMappingHandlerMapping getRequestMappingHandlerMapping() {
+        return new ErrorResponseRequestMappingHandlerMapping();
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.example.demo.problem.reactive;
+
+import com.example.demo.problem.ExceptionReporter;
+import com.example.demo.problem.ProblemBody;
+import com.example.demo.problem.ProblemBodyCache;
+import com.example.demo.problem.ProblemDetailJsonWriter;
+import com.example.demo.problem.ProblemOrigin;
+import com.example.demo.problem.ProblemTranslations;
+import org.springframework.boot.autoconfigure.web.reactive.error.DefaultErrorWebExceptionHandler;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.web.ErrorResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebExceptionHandler;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+/**
+ * Plugs the {@link ProblemTranslations} into the reactive stack, writing the translated problem as
+ * {@code application/problem+json}.
+ * <p>
+ * Exceptions only get here when no {@code @ExceptionHandler} method of the {@code DispatcherHandler} handled them, so
+ * a catch-all translation behaves like a catch-all advice with the lowest precedence. {@link ErrorResponse}
+ * exceptions are left alone, they are the business of the {@code ResponseEntityExceptionHandler} and of the 404 fast
+ * path. It is ordered in front of the {@link DefaultErrorWebExceptionHandler}, which would otherwise render the
+ * exception as a JSON error attributes map.
+ * <p>
+ * The exceptions that are translated into a server error are handed to the {@link ExceptionReporter}, when there is
+ * one, so they are reported without blocking the event loop.
+ */
+public class ProblemTranslationWebExceptionHandler implements WebExceptionHandler, Ordered {
+
+    private final ProblemTranslations translations;
+
+    private final ProblemBodyCache bodyCache;
+
+    private final ProblemDetailJsonWriter jsonWriter;
+
+    @Nullable
+    private final ExceptionReporter reporter;
+
+    public ProblemTranslationWebExceptionHandler(ProblemTranslations translations, ProblemBodyCache bodyCache,
+                                                 ProblemDetailJsonWriter jsonWriter, @Nullable ExceptionReporter reporter) {
+        this.translations = translations;
+        this.bodyCache = bodyCache;
+        this.jsonWriter = jsonWriter;
+        this.reporter = reporter;
+    }
+
+    @Override
+    public int getOrder() {
+        return -2;
+    }
+
+    @Override
+    public Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
+        ServerHttpResponse response = exchange.getResponse();
+        if (ex instanceof ErrorResponse || response.isCommitted()) {
+            return Mono.error(ex);
+        }
+        ProblemDetail problemDetail = translations.translate(ex);
+        if (problemDetail == null) {
+            return Mono.error(ex);
+        }
+        if (reporter != null && problemDetail.getStatus() >= 500) {
+            reporter.report(ex);
+        }
+
+        exchange.getAttributes().put(ProblemOrigin.ATTRIBUTE, ProblemOrigin.TRANSLATION);
+        exchange.getAttributes().put(ProblemOrigin.PROBLEM_TYPE_ATTRIBUTE, problemDetail.getType().toString());
+
+        URI instance = (problemDetail.getInstance() != null ? problemDetail.getInstance() : URI.create(exchange.getRequest().getPath().value()));
+        DataBuffer buffer = encode(problemDetail, instance, response);
+        response.setStatusCode(HttpStatusCode.valueOf(problemDetail.getStatus()));
+        response.getHeaders().setContentType(MediaType.APPLICATION_PROBLEM_JSON);
+        response.getHeaders().setContentLength(buffer.readableByteCount());
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    private DataBuffer encode(ProblemDetail problemDetail, URI instance, ServerHttpResponse response) {
+        ProblemBody body = bodyCache.get(problemDetail, MediaType.APPLICATION_PROBLEM_JSON);
+        if (body != null) {
+            return body.toDataBuffer(response.bufferFactory(), instance);
+        }
+        return jsonWriter.write(problemDetail, instance, response.bufferFactory());
+    }
+
+}
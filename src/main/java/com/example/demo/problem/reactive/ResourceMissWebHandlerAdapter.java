@@ -0,0 +1,127 @@
+package com.example.demo.problem.reactive;
+
+import com.example.demo.problem.ResourceMissCache;
+import com.example.demo.problem.StaticResourceIndex;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.HandlerAdapter;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.HandlerResult;
+import org.springframework.web.reactive.handler.AbstractUrlHandlerMapping;
+import org.springframework.web.reactive.resource.CachingResourceResolver;
+import org.springframework.web.reactive.resource.NoResourceFoundException;
+import org.springframework.web.reactive.resource.PathResourceResolver;
+import org.springframework.web.reactive.resource.ResourceResolver;
+import org.springframework.web.reactive.resource.ResourceWebHandler;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Serves the {@link ResourceWebHandler resource handlers} of the application, answering a 404 for paths that are
+ * known to be missing without resolving them against the resource locations.
+ * <p>
+ * A path is known to be missing when it is not in the {@link StaticResourceIndex} of the handler, or when the handler
+ * recently found nothing for it, as recorded in the {@link ResourceMissCache}. The 404 is signalled with a
+ * {@link NoResourceFoundException}, like the handler does itself, so the controller advice or the
+ * {@link NotFoundProblemWebExceptionHandler} render it as problem details, exactly like a miss that is resolved
+ * against the resource locations.
+ * <p>
+ * Handlers using other resolvers than the {@link PathResourceResolver}, like a versioned or encoded resource chain,
+ * serve paths that do not exist as such, so they are not indexed.
+ */
+public class ResourceMissWebHandlerAdapter implements HandlerAdapter, Ordered, ApplicationContextAware, SmartInitializingSingleton {
+
+    private final boolean indexEnabled;
+
+    @Nullable
+    private final ResourceMissCache missCache;
+
+    private Map<ResourceWebHandler, Optional<StaticResourceIndex>> indexes = Map.of();
+
+    @Nullable
+    private ApplicationContext applicationContext;
+
+    public ResourceMissWebHandlerAdapter(boolean indexEnabled, @Nullable ResourceMissCache missCache) {
+        this.indexEnabled = indexEnabled;
+        this.missCache = missCache;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public void setApplicationContext(ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Map<ResourceWebHandler, Optional<StaticResourceIndex>> indexes = new IdentityHashMap<>();
+        for (HandlerMapping handlerMapping : applicationContext.getBeansOfType(HandlerMapping.class).values()) {
+            if (handlerMapping instanceof AbstractUrlHandlerMapping urlHandlerMapping) {
+                for (Object handler : urlHandlerMapping.getHandlerMap().values()) {
+                    if (handler instanceof ResourceWebHandler resourceHandler) {
+                        indexes.put(resourceHandler, Optional.ofNullable(index(resourceHandler)));
+                    }
+                }
+            }
+        }
+        this.indexes = indexes;
+    }
+
+    @Nullable
+    private StaticResourceIndex index(ResourceWebHandler handler) {
+        if (!indexEnabled) {
+            return null;
+        }
+        for (ResourceResolver resolver : handler.getResourceResolvers()) {
+            if (resolver.getClass() != PathResourceResolver.class && resolver.getClass() != CachingResourceResolver.class) {
+                return null;
+            }
+        }
+        return StaticResourceIndex.scan(applicationContext, handler.getLocations());
+    }
+
+    @Override
+    public boolean supports(Object handler) {
+        return indexes.containsKey(handler);
+    }
+
+    @Override
+    public Mono<HandlerResult> handle(ServerWebExchange exchange, Object handler) {
+        ResourceWebHandler resourceHandler = (ResourceWebHandler) handler;
+        if (!(exchange.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE) instanceof PathContainer pathContainer)) {
+            return resourceHandler.handle(exchange).then(Mono.empty());
+        }
+
+        String path = pathContainer.value();
+        if (isKnownMiss(resourceHandler, path)) {
+            return Mono.error(new NoResourceFoundException(path));
+        }
+        Mono<Void> result = resourceHandler.handle(exchange);
+        if (missCache != null) {
+            // Only a NoResourceFoundException is recorded, as that is how a cached miss is signalled again
+            result = result.doOnError(NoResourceFoundException.class, ex -> missCache.put(resourceHandler, path));
+        }
+        return result.then(Mono.empty());
+    }
+
+    private boolean isKnownMiss(ResourceWebHandler handler, String path) {
+        Optional<StaticResourceIndex> index = indexes.get(handler);
+        if (index.isPresent() && index.get().isAbsent(path)) {
+            return true;
+        }
+        return (missCache != null && missCache.isMiss(handler, path));
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.example.demo.problem.servlet;
+
+import com.example.demo.problem.HandlerMappingErrorResponse;
+import com.example.demo.problem.ProblemOrigin;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.ErrorResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+/**
+ * The handler of the requests that the handler mappings of the problem support cannot map, returning the
+ * {@link HandlerMappingErrorResponse} that the mapping left in the request attributes.
+ * <p>
+ * It is a {@link HandlerMethod}, so the {@link RequestMappingHandlerAdapter} writes the error response exactly like
+ * it writes the one of an {@code @ExceptionHandler} method, with the same content negotiation and message converters.
+ */
+public final class ErrorResponseHandler {
+
+    private static final String ERROR_RESPONSE_ATTRIBUTE = ErrorResponseHandler.class.getName() + ".ERROR_RESPONSE";
+
+    private static final HandlerMethod HANDLER_METHOD = new HandlerMethod(new ErrorResponseHandler(),
+            ClassUtils.getMethod(ErrorResponseHandler.class, "handle", HttpServletRequest.class));
+
+    private ErrorResponseHandler() {
+    }
+
+    /**
+     * Returns the handler for the given error response.
+     */
+    static HandlerMethod forErrorResponse(HttpServletRequest request, HandlerMappingErrorResponse errorResponse) {
+        request.setAttribute(ERROR_RESPONSE_ATTRIBUTE, errorResponse);
+        request.setAttribute(ProblemOrigin.ATTRIBUTE, ProblemOrigin.HANDLER_MAPPING);
+        request.setAttribute(ProblemOrigin.PROBLEM_TYPE_ATTRIBUTE, errorResponse.getBody().getType().toString());
+        return HANDLER_METHOD;
+    }
+
+    public ErrorResponse handle(HttpServletRequest request) {
+        return (ErrorResponse) request.getAttribute(ERROR_RESPONSE_ATTRIBUTE);
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.example.demo.problem.servlet;
+
+import com.example.demo.problem.HandlerMappingErrorResponse;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
+import org.springframework.web.HttpRequestMethodNotSupportedException;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * {@link RequestMappingHandlerMapping} that maps a request whose path is mapped, but not for its HTTP method, to an
+ * {@link ErrorResponseHandler} returning a 405 {@link HandlerMappingErrorResponse}, instead of throwing a
+ * {@link HttpRequestMethodNotSupportedException}.
+ * <p>
+ * {@code OPTIONS} requests and the other mismatches, like an unsupported media type, are handled as before.
+ */
+public class ErrorResponseRequestMappingHandlerMapping extends RequestMappingHandlerMapping {
+
+    @Override
+    @Nullable
+    protected HandlerMethod handleNoMatch(Set<RequestMappingInfo> infos, String lookupPath, HttpServletRequest request) throws ServletException {
+        if (!HttpMethod.OPTIONS.matches(request.getMethod()) && !CorsUtils.isPreFlightRequest(request)) {
+            Set<HttpMethod> allowedMethods = allowedMethodsOnMethodMismatch(infos, request);
+            if (allowedMethods != null) {
+                String detail = "Method '" + request.getMethod() + "' is not supported.";
+                return ErrorResponseHandler.forErrorResponse(request, HandlerMappingErrorResponse.methodNotAllowed(detail, allowedMethods));
+            }
+        }
+        return super.handleNoMatch(infos, lookupPath, request);
+    }
+
+    /**
+     * Returns the methods of the mappings whose patterns match, when there are some and none of them matches the
+     * method, like the {@code RequestMappingInfoHandlerMapping} does before throwing.
+     */
+    @Nullable
+    private static Set<HttpMethod> allowedMethodsOnMethodMismatch(Set<RequestMappingInfo> infos, HttpServletRequest request) {
+        Set<HttpMethod> allowedMethods = null;
+        for (RequestMappingInfo info : infos) {
+            if (info.getActivePatternsCondition().getMatchingCondition(request) == null) {
+                continue;
+            }
+            if (info.getMethodsCondition().getMatchingCondition(request) != null) {
+                return null;
+            }
+            if (allowedMethods == null) {
+                allowedMethods = new LinkedHashSet<>();
+            }
+            for (RequestMethod method : info.getMethodsCondition().getMethods()) {
+                allowedMethods.add(method.asHttpMethod());
+            }
+        }
+        return allowedMethods;
+    }
+
+}
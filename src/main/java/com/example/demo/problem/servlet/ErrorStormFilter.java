@@ -0,0 +1,92 @@
+package com.example.demo.problem.servlet;
+
+import com.example.demo.problem.ErrorStorm;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Records the status of every response in the {@link ErrorStorm}.
+ * <p>
+ * The status is recorded before the response is committed: when {@link HttpServletResponse#sendError(int)} is called,
+ * before the ERROR dispatch renders it, or when the body is about to be written. Otherwise the client could already
+ * have read the response, and sent the next request, before the status is recorded. Responses without a body are
+ * recorded at the end of the REQUEST dispatch, and requests that fail with an exception count as a server error.
+ */
+public class ErrorStormFilter extends OncePerRequestFilter {
+
+    private final ErrorStorm errorStorm;
+
+    public ErrorStormFilter(ErrorStorm errorStorm) {
+        this.errorStorm = errorStorm;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        StatusRecordingResponse recordingResponse = new StatusRecordingResponse(response);
+        try {
+            filterChain.doFilter(request, recordingResponse);
+        } catch (ServletException | IOException | RuntimeException ex) {
+            recordingResponse.record(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            throw ex;
+        }
+        if (!request.isAsyncStarted()) {
+            recordingResponse.record(response.getStatus());
+        }
+    }
+
+    private final class StatusRecordingResponse extends HttpServletResponseWrapper {
+
+        private boolean recorded;
+
+        StatusRecordingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        void record(int status) {
+            if (!recorded) {
+                recorded = true;
+                errorStorm.record(status);
+            }
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            record(sc);
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            record(sc);
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            record(getStatus());
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            record(getStatus());
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            record(getStatus());
+            super.flushBuffer();
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.example.demo.problem.servlet;
+
+import com.example.demo.problem.DegradedProblem;
+import com.example.demo.problem.ErrorStorm;
+import com.example.demo.problem.ProblemOrigin;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Replaces the server error problems of the catch-all {@code @ExceptionHandler} methods by the
+ * {@link DegradedProblem} while an {@link ErrorStorm} is active, so they are written from a pre-encoded body, with a
+ * {@code Retry-After} header.
+ * <p>
+ * Ordered first, so the other response body advices see the replaced problem.
+ */
+@ControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ErrorStormResponseBodyAdvice implements ResponseBodyAdvice<Object> {
+
+    private final ErrorStorm errorStorm;
+
+    private final DegradedProblem degradedProblem;
+
+    public ErrorStormResponseBodyAdvice(ErrorStorm errorStorm, DegradedProblem degradedProblem) {
+        this.errorStorm = errorStorm;
+        this.degradedProblem = degradedProblem;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return (returnType.getMethod() != null
+                && returnType.hasMethodAnnotation(ExceptionHandler.class)
+                && ProblemOrigin.forExceptionHandler(returnType.getContainingClass(), returnType.getMethod()) == ProblemOrigin.CATCH_ALL_ADVICE);
+    }
+
+    @Override
+    public Object beforeBodyWrite(@Nullable Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+
+        if (!errorStorm.isActive() || !(body instanceof ProblemDetail problemDetail) || !degradedProblem.replaces(problemDetail.getStatus())) {
+            return body;
+        }
+        response.setStatusCode(degradedProblem.getStatus());
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, degradedProblem.getRetryAfter());
+        return degradedProblem.getProblemDetail();
+    }
+
+}
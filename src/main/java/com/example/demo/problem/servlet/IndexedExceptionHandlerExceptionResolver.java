@@ -0,0 +1,56 @@
+package com.example.demo.problem.servlet;
+
+import com.example.demo.problem.ExceptionHandlerIndex;
+import org.springframework.lang.Nullable;
+import org.springframework.web.method.ControllerAdviceBean;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
+import org.springframework.web.servlet.mvc.method.annotation.ExceptionHandlerExceptionResolver;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link ExceptionHandlerExceptionResolver} that finds the {@code @ExceptionHandler} method of the
+ * {@code @ControllerAdvice} beans through an {@link ExceptionHandlerIndex}, instead of walking all advices for every
+ * exception.
+ * <p>
+ * The index is only used when every advice applies to all controllers, and the controller that raised the exception
+ * has no {@code @ExceptionHandler} methods of its own. Otherwise the lookup is left to the default implementation.
+ */
+public class IndexedExceptionHandlerExceptionResolver extends ExceptionHandlerExceptionResolver {
+
+    @Nullable
+    private ExceptionHandlerIndex<ControllerAdviceBean> index;
+
+    private final Map<Class<?>, Boolean> localExceptionHandlers = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+
+        Map<ControllerAdviceBean, ExceptionHandlerMethodResolver> advices = getExceptionHandlerAdviceCache();
+        boolean allGlobal = advices.keySet().stream().allMatch(advice -> advice.isApplicableToBeanType(null));
+        index = (allGlobal ? ExceptionHandlerIndex.of(advices) : null);
+    }
+
+    @Override
+    @Nullable
+    protected ServletInvocableHandlerMethod getExceptionHandlerMethod(@Nullable HandlerMethod handlerMethod, Exception exception) {
+        if (index == null || (handlerMethod != null && hasLocalExceptionHandlers(handlerMethod.getBeanType()))) {
+            return super.getExceptionHandlerMethod(handlerMethod, exception);
+        }
+
+        ExceptionHandlerIndex.Match<ControllerAdviceBean> match = index.lookup(exception);
+        if (match == null) {
+            return null;
+        }
+        return new ServletInvocableHandlerMethod(match.advice().resolveBean(), match.method(), getApplicationContext());
+    }
+
+    private boolean hasLocalExceptionHandlers(Class<?> handlerType) {
+        return localExceptionHandlers.computeIfAbsent(handlerType, type -> new ExceptionHandlerMethodResolver(type).hasExceptionMappings());
+    }
+
+}
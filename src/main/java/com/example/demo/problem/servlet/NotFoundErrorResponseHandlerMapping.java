@@ -0,0 +1,35 @@
+package com.example.demo.problem.servlet;
+
+import com.example.demo.problem.HandlerMappingErrorResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.Ordered;
+import org.springframework.lang.Nullable;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.NoHandlerFoundException;
+import org.springframework.web.servlet.handler.AbstractHandlerMapping;
+
+/**
+ * The last handler mapping, mapping the requests that no other handler mapping maps to an
+ * {@link ErrorResponseHandler} returning a 404 {@link HandlerMappingErrorResponse}, instead of letting the
+ * {@link DispatcherServlet} throw a {@link NoHandlerFoundException}.
+ * <p>
+ * Pre-flight requests are not mapped, so they are rejected as before.
+ */
+public class NotFoundErrorResponseHandlerMapping extends AbstractHandlerMapping {
+
+    public NotFoundErrorResponseHandlerMapping() {
+        setOrder(Ordered.LOWEST_PRECEDENCE);
+    }
+
+    @Override
+    @Nullable
+    protected Object getHandlerInternal(HttpServletRequest request) {
+        if (CorsUtils.isPreFlightRequest(request)) {
+            return null;
+        }
+        String detail = "No endpoint " + request.getMethod() + " " + request.getRequestURI() + ".";
+        return ErrorResponseHandler.forErrorResponse(request, HandlerMappingErrorResponse.notFound(detail));
+    }
+
+}
@@ -0,0 +1,240 @@
+package com.example.demo.problem.servlet;
+
+import com.example.demo.problem.ErrorRepresentation;
+import com.example.demo.problem.ErrorRepresentationResolver;
+import com.example.demo.problem.ProblemBody;
+import com.example.demo.problem.ProblemBodyCache;
+import com.example.demo.problem.ProblemCaching;
+import com.example.demo.problem.ProblemDetailJsonWriter;
+import com.example.demo.problem.ProblemOrigin;
+import com.example.demo.problem.WhitelabelErrorPages;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.lang.Nullable;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.NoHandlerFoundException;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Date;
+
+/**
+ * Turns a {@link HttpServletResponse#sendError(int) sendError(404)} into a {@code application/problem+json} response
+ * within the same request dispatch.
+ * <p>
+ * A {@code sendError(404)} makes the servlet container perform a second, ERROR, dispatch through the filter chain to
+ * the {@code BasicErrorController}, which bypasses the {@code ResponseEntityExceptionHandler}. This filter captures
+ * the 404 before the container sees it and writes the problem response directly, so the ERROR dispatch never happens.
+ * Two kinds of 404 are captured:
+ * <ul>
+ * <li>a bare {@code sendError(404)}, as sent by handlers and applications that do not say why;</li>
+ * <li>the {@code sendError(404, detail)} of the {@code DefaultHandlerExceptionResolver}, which renders the
+ * {@link NoResourceFoundException} of the resource handler and the {@link NoHandlerFoundException} of the dispatcher
+ * when no problem details advice handles them, for instance when the {@code ResponseEntityExceptionHandler} of the
+ * application is restricted to its own controllers.</li>
+ * </ul>
+ * Any other {@code sendError(404, message)} carries a message of the caller, so it is passed on to the container once
+ * the dispatcher has returned and recorded which exception, if any, it resolved.
+ * <p>
+ * Requests that prefer {@code text/html} over JSON get the pre-rendered {@link WhitelabelErrorPages whitelabel error
+ * page} when it is enabled, otherwise they are passed on to the container untouched, so the error page is rendered
+ * by the error controller. Requests that prefer {@code application/problem+cbor} get the problem streamed by the CBOR
+ * {@link ProblemDetailJsonWriter writer}, when there is one.
+ * <p>
+ * With {@link ProblemCaching}, both representations carry caching headers, and a request whose
+ * {@code If-None-Match} matches the entity tag of the representation gets a {@code 304 Not Modified} without body.
+ */
+public class NotFoundProblemFilter extends OncePerRequestFilter {
+
+    private static final ProblemDetail NOT_FOUND = ProblemDetail.forStatus(HttpStatus.NOT_FOUND);
+
+    private static final String NOT_FOUND_TYPE = NOT_FOUND.getType().toString();
+
+    private final ProblemBodyCache bodyCache;
+
+    private final ErrorRepresentationResolver representationResolver;
+
+    @Nullable
+    private final WhitelabelErrorPages errorPages;
+
+    @Nullable
+    private final ProblemCaching caching;
+
+    @Nullable
+    private final ProblemDetailJsonWriter cborWriter;
+
+    @Nullable
+    private final String cborEntityTag;
+
+    public NotFoundProblemFilter(ProblemBodyCache bodyCache, ErrorRepresentationResolver representationResolver,
+                                 @Nullable WhitelabelErrorPages errorPages, @Nullable ProblemCaching caching) {
+        this(bodyCache, representationResolver, errorPages, caching, null);
+    }
+
+    public NotFoundProblemFilter(ProblemBodyCache bodyCache, ErrorRepresentationResolver representationResolver,
+                                 @Nullable WhitelabelErrorPages errorPages, @Nullable ProblemCaching caching,
+                                 @Nullable ProblemDetailJsonWriter cborWriter) {
+        this.bodyCache = bodyCache;
+        this.representationResolver = representationResolver;
+        this.errorPages = errorPages;
+        this.caching = caching;
+        this.cborWriter = cborWriter;
+        this.cborEntityTag = (cborWriter != null ? ProblemCaching.entityTag(cborWriter.writeAsBytes(NOT_FOUND)) : null);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        NotFoundCapturingResponse capturingResponse = new NotFoundCapturingResponse(request, response);
+
+        filterChain.doFilter(request, capturingResponse);
+
+        ErrorRepresentation representation = capturingResponse.representation;
+        if (representation == null) {
+            return;
+        }
+        if (capturingResponse.message != null && !isFrameworkNotFound(request)) {
+            response.sendError(HttpStatus.NOT_FOUND.value(), capturingResponse.message);
+            return;
+        }
+
+        request.setAttribute(ProblemOrigin.ATTRIBUTE, ProblemOrigin.NOT_FOUND_FAST_PATH);
+        if (representation == ErrorRepresentation.PROBLEM_JSON || representation == ErrorRepresentation.PROBLEM_CBOR) {
+            writeProblem(request, response, representation);
+        } else {
+            writeErrorPage(request, response);
+        }
+    }
+
+    /**
+     * Whether the dispatcher resolved a 404 of the framework, with an empty model and view, meaning the
+     * {@code DefaultHandlerExceptionResolver} sent it.
+     */
+    private static boolean isFrameworkNotFound(HttpServletRequest request) {
+        Object exception = request.getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE);
+        return (exception instanceof NoResourceFoundException || exception instanceof NoHandlerFoundException);
+    }
+
+    /**
+     * Writes the pre-encoded JSON problem, or streams the CBOR one, as it can not be pre-encoded without its
+     * {@code instance}.
+     */
+    private void writeProblem(HttpServletRequest request, HttpServletResponse response, ErrorRepresentation representation) throws IOException {
+        ProblemBody body = (representation == ErrorRepresentation.PROBLEM_JSON ? bodyCache.get(NOT_FOUND, MediaType.APPLICATION_PROBLEM_JSON) : null);
+        request.setAttribute(ProblemOrigin.PROBLEM_TYPE_ATTRIBUTE, NOT_FOUND_TYPE);
+
+        response.resetBuffer();
+        if (isNotModified(request, response, (body != null ? body.getEntityTag() : cborEntityTag))) {
+            response.flushBuffer();
+            return;
+        }
+        response.setStatus(HttpStatus.NOT_FOUND.value());
+        response.setContentType(representation.getMediaType().toString());
+        URI instance = URI.create(request.getRequestURI());
+        if (body != null) {
+            body.writeTo(response.getOutputStream(), instance);
+        } else {
+            cborWriter.write(NOT_FOUND, instance, response.getOutputStream());
+        }
+        response.flushBuffer();
+    }
+
+    private void writeErrorPage(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.resetBuffer();
+        if (isNotModified(request, response, errorPages.getEntityTag(HttpStatus.NOT_FOUND))) {
+            response.flushBuffer();
+            return;
+        }
+        response.setStatus(HttpStatus.NOT_FOUND.value());
+        response.setContentType(MediaType.TEXT_HTML_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        errorPages.writeTo(response.getOutputStream(), HttpStatus.NOT_FOUND, new Date());
+        response.flushBuffer();
+    }
+
+    /**
+     * Sets the caching headers when the 404 is cacheable, and the {@code 304} status when the client has the
+     * representation already.
+     */
+    private boolean isNotModified(HttpServletRequest request, HttpServletResponse response, String entityTag) {
+        String cacheControl = (caching != null ? caching.getCacheControl(request.getMethod(), HttpStatus.NOT_FOUND.value()) : null);
+        if (cacheControl == null) {
+            return false;
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.ETAG, entityTag);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (!ProblemCaching.isNotModified(Collections.list(request.getHeaders(HttpHeaders.IF_NONE_MATCH)), entityTag)) {
+            return false;
+        }
+        response.setStatus(HttpStatus.NOT_MODIFIED.value());
+        return true;
+    }
+
+    private final class NotFoundCapturingResponse extends HttpServletResponseWrapper {
+
+        private final HttpServletRequest request;
+
+        @Nullable
+        private ErrorRepresentation representation;
+
+        /**
+         * The message of a captured {@code sendError(404, message)}.
+         */
+        @Nullable
+        private String message;
+
+        NotFoundCapturingResponse(HttpServletRequest request, HttpServletResponse response) {
+            super(response);
+            this.request = request;
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            if (!capture(sc)) {
+                super.sendError(sc);
+            }
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            if (capture(sc)) {
+                message = msg;
+            } else {
+                super.sendError(sc, msg);
+            }
+        }
+
+        @Override
+        public boolean isCommitted() {
+            return representation != null || super.isCommitted();
+        }
+
+        private boolean capture(int sc) {
+            if (sc != HttpStatus.NOT_FOUND.value() || super.isCommitted()) {
+                return false;
+            }
+
+            ErrorRepresentation resolved = representationResolver.resolve(request.getHeader(HttpHeaders.ACCEPT));
+            if (resolved == ErrorRepresentation.PROBLEM_JSON
+                    || (resolved == ErrorRepresentation.PROBLEM_CBOR && cborWriter != null)
+                    || (resolved == ErrorRepresentation.HTML && errorPages != null)) {
+                representation = resolved;
+                return true;
+            }
+            return false;
+        }
+    }
+
+}
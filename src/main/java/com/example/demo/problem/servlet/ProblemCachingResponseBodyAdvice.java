@@ -0,0 +1,76 @@
+package com.example.demo.problem.servlet;
+
+import com.example.demo.problem.ProblemBody;
+import com.example.demo.problem.ProblemBodyCache;
+import com.example.demo.problem.ProblemCaching;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Applies {@link ProblemCaching} to the problems written through the message converters, like the ones of the
+ * {@code ResponseEntityExceptionHandler} for the {@code NoResourceFoundException} of the resource handler, which never
+ * reach the {@link NotFoundProblemFilter}.
+ * <p>
+ * Problems of a cacheable status get the caching headers. The entity tag is the one of the pre-encoded body of the
+ * {@link ProblemBodyCache}, so problems that have none, like the ones written as CBOR, are cacheable without being
+ * conditional. A request whose {@code If-None-Match} matches the entity tag gets a {@code 304 Not Modified} without
+ * body. The detail of a framework problem may name the path, so the entity tag is only shared by the paths whose
+ * problems are alike.
+ */
+@ControllerAdvice
+public class ProblemCachingResponseBodyAdvice implements ResponseBodyAdvice<Object> {
+
+    private final ProblemCaching caching;
+
+    private final ProblemBodyCache bodyCache;
+
+    public ProblemCachingResponseBodyAdvice(ProblemCaching caching, ProblemBodyCache bodyCache) {
+        this.caching = caching;
+        this.bodyCache = bodyCache;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    @Nullable
+    public Object beforeBodyWrite(@Nullable Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+
+        if (!(body instanceof ProblemDetail problemDetail)) {
+            return body;
+        }
+        String cacheControl = caching.getCacheControl(request.getMethod().name(), problemDetail.getStatus());
+        if (cacheControl == null) {
+            return body;
+        }
+
+        HttpHeaders headers = response.getHeaders();
+        headers.setCacheControl(cacheControl);
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        ProblemBody problemBody = bodyCache.get(problemDetail, selectedContentType);
+        if (problemBody == null) {
+            return body;
+        }
+        headers.setETag(problemBody.getEntityTag());
+        if (!ProblemCaching.isNotModified(request.getHeaders().get(HttpHeaders.IF_NONE_MATCH), problemBody.getEntityTag())) {
+            return body;
+        }
+        // Without a body, nothing is written and only the headers are flushed
+        response.setStatusCode(HttpStatus.NOT_MODIFIED);
+        return null;
+    }
+
+}
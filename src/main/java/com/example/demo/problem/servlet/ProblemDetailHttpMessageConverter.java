@@ -0,0 +1,75 @@
+package com.example.demo.problem.servlet;
+
+import com.example.demo.problem.ProblemBody;
+import com.example.demo.problem.ProblemBodyCache;
+import com.example.demo.problem.ProblemDetailJsonWriter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link ProblemDetail problem details} as {@code application/problem+json} using the pre-encoded bodies of
+ * the {@link ProblemBodyCache}. Problems that can not be cached are streamed to the response by the
+ * {@link ProblemDetailJsonWriter}.
+ * <p>
+ * Created without a cache, it streams every problem in the format of the object mapper of the writer, as the given
+ * media type, like {@code application/problem+cbor}.
+ * <p>
+ * Only writing is supported, reading problem details is left to the regular Jackson converter.
+ */
+public class ProblemDetailHttpMessageConverter extends AbstractHttpMessageConverter<ProblemDetail> {
+
+    @Nullable
+    private final ProblemBodyCache bodyCache;
+
+    private final ProblemDetailJsonWriter problemWriter;
+
+    public ProblemDetailHttpMessageConverter(ProblemBodyCache bodyCache, ProblemDetailJsonWriter jsonWriter) {
+        super(MediaType.APPLICATION_PROBLEM_JSON);
+        this.bodyCache = bodyCache;
+        this.problemWriter = jsonWriter;
+    }
+
+    public ProblemDetailHttpMessageConverter(ProblemDetailJsonWriter problemWriter, MediaType mediaType) {
+        super(mediaType);
+        this.bodyCache = null;
+        this.problemWriter = problemWriter;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ProblemDetail.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected ProblemDetail readInternal(Class<? extends ProblemDetail> clazz, HttpInputMessage inputMessage) throws HttpMessageNotReadableException {
+        throw new HttpMessageNotReadableException("Reading problem details is not supported", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(ProblemDetail problemDetail, HttpOutputMessage outputMessage) throws IOException, HttpMessageNotWritableException {
+        ProblemBody body = null;
+        if (bodyCache != null) {
+            MediaType contentType = outputMessage.getHeaders().getContentType();
+            body = bodyCache.get(problemDetail, (contentType != null ? contentType : MediaType.APPLICATION_PROBLEM_JSON));
+        }
+        if (body != null) {
+            body.writeTo(outputMessage.getBody(), problemDetail.getInstance());
+        } else {
+            problemWriter.write(problemDetail, outputMessage.getBody());
+        }
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.example.demo.problem.servlet;
+
+import com.example.demo.problem.ProblemMetrics;
+import com.example.demo.problem.ProblemOrigin;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.lang.Nullable;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.io.IOException;
+
+/**
+ * Records the problem responses in the {@link ProblemMetrics}.
+ * <p>
+ * A problem is normally recorded at the end of the REQUEST dispatch, with the {@link ProblemOrigin origin} that the
+ * exception handler or 404 fast path left in the request attributes. When the request dispatch ends with a
+ * {@link HttpServletResponse#sendError(int) sendError} or an exception, the container performs an ERROR dispatch to
+ * the error controller, so the problem is recorded at the end of that dispatch instead, measured from the start of the
+ * original request. This requires the filter to be registered for the ERROR dispatch as well.
+ */
+public class ProblemMetricsFilter extends OncePerRequestFilter {
+
+    private static final String START_TIME_ATTRIBUTE = ProblemMetricsFilter.class.getName() + ".START_TIME";
+
+    private final ProblemMetrics metrics;
+
+    public ProblemMetricsFilter(ProblemMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected boolean shouldNotFilterErrorDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (request.getDispatcherType() == DispatcherType.ERROR) {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                recordErrorDispatch(request, response);
+            }
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        SendErrorTrackingResponse trackingResponse = new SendErrorTrackingResponse(response);
+        boolean errorDispatchFollows = false;
+        try {
+            filterChain.doFilter(request, trackingResponse);
+            errorDispatchFollows = trackingResponse.sendError;
+        } catch (Throwable ex) {
+            errorDispatchFollows = true;
+            throw ex;
+        } finally {
+            if (errorDispatchFollows) {
+                request.setAttribute(START_TIME_ATTRIBUTE, startTime);
+            } else {
+                recordRequestDispatch(request, response, startTime);
+            }
+        }
+    }
+
+    private void recordRequestDispatch(HttpServletRequest request, HttpServletResponse response, long startTime) {
+        int status = response.getStatus();
+        if (status < 400) {
+            return;
+        }
+
+        ProblemOrigin origin = (ProblemOrigin) request.getAttribute(ProblemOrigin.ATTRIBUTE);
+        metrics.record((origin != null ? origin : ProblemOrigin.OTHER), status,
+                (String) request.getAttribute(ProblemOrigin.PROBLEM_TYPE_ATTRIBUTE),
+                exceptionType(request.getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE)),
+                System.nanoTime() - startTime);
+    }
+
+    private void recordErrorDispatch(HttpServletRequest request, HttpServletResponse response) {
+        Object startTime = request.getAttribute(START_TIME_ATTRIBUTE);
+        if (startTime == null) {
+            return;
+        }
+
+        metrics.record(ProblemOrigin.ERROR_CONTROLLER, response.getStatus(), null,
+                exceptionType(request.getAttribute(RequestDispatcher.ERROR_EXCEPTION)),
+                System.nanoTime() - (Long) startTime);
+    }
+
+    @Nullable
+    private static Class<?> exceptionType(@Nullable Object exception) {
+        return (exception != null ? exception.getClass() : null);
+    }
+
+    private static final class SendErrorTrackingResponse extends HttpServletResponseWrapper {
+
+        private boolean sendError;
+
+        SendErrorTrackingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            super.sendError(sc);
+            sendError = true;
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            super.sendError(sc, msg);
+            sendError = true;
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.example.demo.problem.servlet;
+
+import com.example.demo.problem.ProblemOrigin;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.lang.Nullable;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Stores the {@link ProblemOrigin origin} and problem type of the bodies written by {@code @ExceptionHandler}
+ * methods in the request attributes, so they can be picked up by the {@link ProblemMetricsFilter}.
+ */
+@ControllerAdvice
+public class ProblemOriginResponseBodyAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return returnType.hasMethodAnnotation(ExceptionHandler.class);
+    }
+
+    @Override
+    public Object beforeBodyWrite(@Nullable Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+
+        if (request instanceof ServletServerHttpRequest servletRequest && returnType.getMethod() != null) {
+            HttpServletRequest httpRequest = servletRequest.getServletRequest();
+            httpRequest.setAttribute(ProblemOrigin.ATTRIBUTE,
+                    ProblemOrigin.forExceptionHandler(returnType.getContainingClass(), returnType.getMethod()));
+            if (body instanceof ProblemDetail problemDetail) {
+                httpRequest.setAttribute(ProblemOrigin.PROBLEM_TYPE_ATTRIBUTE, problemDetail.getType().toString());
+            }
+        }
+        return body;
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.example.demo.problem.servlet;
+
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.web.servlet.mvc.method.annotation.ExceptionHandlerExceptionResolver;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+/**
+ * Replaces the WebMVC infrastructure components used by the problem support. Spring Boot only applies a single
+ * {@link WebMvcRegistrations} bean, so all replacements are made here.
+ */
+public class ProblemSupportWebMvcRegistrations implements WebMvcRegistrations {
+
+    private final boolean exceptionHandlerIndex;
+
+    private final boolean handlerMappingErrorResponses;
+
+    public ProblemSupportWebMvcRegistrations(boolean exceptionHandlerIndex, boolean handlerMappingErrorResponses) {
+        this.exceptionHandlerIndex = exceptionHandlerIndex;
+        this.handlerMappingErrorResponses = handlerMappingErrorResponses;
+    }
+
+    @Override
+    public RequestMappingHandlerMapping getRequestMappingHandlerMapping() {
+        return (handlerMappingErrorResponses ? new ErrorResponseRequestMappingHandlerMapping() : null);
+    }
+
+    @Override
+    public ExceptionHandlerExceptionResolver getExceptionHandlerExceptionResolver() {
+        return (exceptionHandlerIndex ? new IndexedExceptionHandlerExceptionResolver() : null);
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.example.demo.problem.servlet;
+
+import com.example.demo.problem.ExceptionReporter;
+import com.example.demo.problem.ProblemBody;
+import com.example.demo.problem.ProblemBodyCache;
+import com.example.demo.problem.ProblemDetailJsonWriter;
+import com.example.demo.problem.ProblemOrigin;
+import com.example.demo.problem.ProblemTranslations;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.handler.HandlerExceptionResolverComposite;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Plugs the {@link ProblemTranslations} into the servlet stack, writing the translated problem as
+ * {@code application/problem+json}.
+ * <p>
+ * It is ordered after the {@link HandlerExceptionResolverComposite} of Spring MVC, so the {@code @ExceptionHandler}
+ * methods, including those of the {@code ResponseEntityExceptionHandler}, and the other default resolvers handle
+ * their exceptions first. That makes a catch-all translation behave like a catch-all advice with the lowest
+ * precedence, without having to order any advice.
+ * <p>
+ * The exceptions that are translated into a server error are handed to the {@link ExceptionReporter}, when there is
+ * one, so they are reported without blocking the request.
+ */
+public class ProblemTranslationHandlerExceptionResolver implements HandlerExceptionResolver, Ordered {
+
+    private final ProblemTranslations translations;
+
+    private final ProblemBodyCache bodyCache;
+
+    private final ProblemDetailJsonWriter jsonWriter;
+
+    @Nullable
+    private final ExceptionReporter reporter;
+
+    public ProblemTranslationHandlerExceptionResolver(ProblemTranslations translations, ProblemBodyCache bodyCache,
+                                                      ProblemDetailJsonWriter jsonWriter, @Nullable ExceptionReporter reporter) {
+        this.translations = translations;
+        this.bodyCache = bodyCache;
+        this.jsonWriter = jsonWriter;
+        this.reporter = reporter;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    @Override
+    @Nullable
+    public ModelAndView resolveException(HttpServletRequest request, HttpServletResponse response,
+                                         @Nullable Object handler, Exception ex) {
+        if (response.isCommitted()) {
+            return null;
+        }
+        ProblemDetail problemDetail = translations.translate(ex);
+        if (problemDetail == null) {
+            return null;
+        }
+        if (reporter != null && problemDetail.getStatus() >= 500) {
+            reporter.report(ex);
+        }
+
+        try {
+            write(problemDetail, request, response);
+        } catch (IOException writeEx) {
+            return null;
+        }
+        request.setAttribute(ProblemOrigin.ATTRIBUTE, ProblemOrigin.TRANSLATION);
+        request.setAttribute(ProblemOrigin.PROBLEM_TYPE_ATTRIBUTE, problemDetail.getType().toString());
+        return new ModelAndView();
+    }
+
+    private void write(ProblemDetail problemDetail, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        URI instance = (problemDetail.getInstance() != null ? problemDetail.getInstance() : URI.create(request.getRequestURI()));
+
+        response.resetBuffer();
+        response.setStatus(problemDetail.getStatus());
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        ProblemBody body = bodyCache.get(problemDetail, MediaType.APPLICATION_PROBLEM_JSON);
+        if (body != null) {
+            body.writeTo(response.getOutputStream(), instance);
+        } else {
+            jsonWriter.write(problemDetail, instance, response.getOutputStream());
+        }
+        response.flushBuffer();
+    }
+
+}
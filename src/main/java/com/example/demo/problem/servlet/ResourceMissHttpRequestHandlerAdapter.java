@@ -0,0 +1,145 @@
+package com.example.demo.problem.servlet;
+
+import com.example.demo.problem.ResourceMissCache;
+import com.example.demo.problem.StaticResourceIndex;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.HandlerAdapter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.handler.AbstractUrlHandlerMapping;
+import org.springframework.web.servlet.resource.CachingResourceResolver;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+import org.springframework.web.servlet.resource.ResourceResolver;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Serves the {@link ResourceHttpRequestHandler resource handlers} of the application, answering a 404 for paths
+ * that are known to be missing without resolving them against the resource locations.
+ * <p>
+ * A path is known to be missing when it is not in the {@link StaticResourceIndex} of the handler, or when the handler
+ * recently found nothing for it, as recorded in the {@link ResourceMissCache}. The 404 is signalled with a
+ * {@link NoResourceFoundException}, like the handler does itself, so the exception resolvers render it as problem
+ * details, exactly like a miss that is resolved against the resource locations.
+ * <p>
+ * Handlers using other resolvers than the {@link PathResourceResolver}, like a versioned or encoded resource chain,
+ * serve paths that do not exist as such, so they are not indexed.
+ */
+public class ResourceMissHttpRequestHandlerAdapter implements HandlerAdapter, Ordered, ApplicationContextAware, SmartInitializingSingleton {
+
+    private final boolean indexEnabled;
+
+    @Nullable
+    private final ResourceMissCache missCache;
+
+    private Map<ResourceHttpRequestHandler, Optional<StaticResourceIndex>> indexes = Map.of();
+
+    @Nullable
+    private ApplicationContext applicationContext;
+
+    public ResourceMissHttpRequestHandlerAdapter(boolean indexEnabled, @Nullable ResourceMissCache missCache) {
+        this.indexEnabled = indexEnabled;
+        this.missCache = missCache;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public void setApplicationContext(ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Map<ResourceHttpRequestHandler, Optional<StaticResourceIndex>> indexes = new IdentityHashMap<>();
+        for (HandlerMapping handlerMapping : applicationContext.getBeansOfType(HandlerMapping.class).values()) {
+            if (handlerMapping instanceof AbstractUrlHandlerMapping urlHandlerMapping) {
+                for (Object handler : urlHandlerMapping.getHandlerMap().values()) {
+                    if (handler instanceof ResourceHttpRequestHandler resourceHandler) {
+                        indexes.put(resourceHandler, Optional.ofNullable(index(resourceHandler)));
+                    }
+                }
+            }
+        }
+        this.indexes = indexes;
+    }
+
+    @Nullable
+    private StaticResourceIndex index(ResourceHttpRequestHandler handler) {
+        if (!indexEnabled) {
+            return null;
+        }
+        for (ResourceResolver resolver : handler.getResourceResolvers()) {
+            if (resolver.getClass() != PathResourceResolver.class && resolver.getClass() != CachingResourceResolver.class) {
+                return null;
+            }
+        }
+        return StaticResourceIndex.scan(applicationContext, handler.getLocations());
+    }
+
+    @Override
+    public boolean supports(Object handler) {
+        return indexes.containsKey(handler);
+    }
+
+    @Override
+    @Nullable
+    public ModelAndView handle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        ResourceHttpRequestHandler resourceHandler = (ResourceHttpRequestHandler) handler;
+        if (!(request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE) instanceof String path)) {
+            resourceHandler.handleRequest(request, response);
+            return null;
+        }
+
+        if (isKnownMiss(resourceHandler, path)) {
+            throw new NoResourceFoundException(HttpMethod.valueOf(request.getMethod()), path);
+        } else if (missCache != null) {
+            handleRecordingMiss(resourceHandler, path, request, response);
+        } else {
+            resourceHandler.handleRequest(request, response);
+        }
+        return null;
+    }
+
+    private boolean isKnownMiss(ResourceHttpRequestHandler handler, String path) {
+        Optional<StaticResourceIndex> index = indexes.get(handler);
+        if (index.isPresent() && index.get().isAbsent(path)) {
+            return true;
+        }
+        return (missCache != null && missCache.isMiss(handler, path));
+    }
+
+    /**
+     * Only a {@link NoResourceFoundException} is recorded, as that is how a cached miss is signalled again.
+     */
+    private void handleRecordingMiss(ResourceHttpRequestHandler handler, String path, HttpServletRequest request,
+                                     HttpServletResponse response) throws Exception {
+        try {
+            handler.handleRequest(request, response);
+        } catch (NoResourceFoundException ex) {
+            missCache.put(handler, path);
+            throw ex;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public long getLastModified(HttpServletRequest request, Object handler) {
+        return -1;
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.example.demo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The 404 problems, with caching enabled, in both the JSON and the pre-rendered HTML representation. The JSON problem
+ * is written by the {@code ResponseEntityExceptionHandler}, with a detail that names the path, so its entity tag is
+ * checked against the same path.
+ */
+class CacheableNotFoundTest {
+
+    //******************************************************************************************************************
+    //** WebMVC ********************************************************************************************************
+    //******************************************************************************************************************
+
+    @Nested
+    @TestPropertySource(
+            properties = {
+                    "spring.main.web-application-type=servlet",
+                    "spring.mvc.problemdetails.enabled=true"
+            }
+    )
+    class WebMvcTests extends Tests {
+    }
+
+    //******************************************************************************************************************
+    //** Webflux *******************************************************************************************************
+    //******************************************************************************************************************
+
+    @Nested
+    @TestPropertySource(
+            properties = {
+                    "spring.main.web-application-type=reactive",
+                    "spring.webflux.problemdetails.enabled=true",
+            }
+    )
+    class WebfluxTests extends Tests {
+    }
+
+    //******************************************************************************************************************
+    //** Tests *********************************************************************************************************
+    //******************************************************************************************************************
+
+    @SpringBootTest(
+            classes = TestConfig.class,
+            webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = {
+                    "problem-support.caching.enabled=true",
+                    "problem-support.caching.max-age=30s",
+                    "problem-support.error-page.enabled=true"
+            }
+    )
+    static abstract class Tests {
+
+        @LocalServerPort
+        int port;
+
+        WebTestClient webTestClient;
+
+        @BeforeEach
+        void initWebClient() {
+            webTestClient = WebTestClient.bindToServer()
+                    .baseUrl("http://localhost:" + port)
+                    .responseTimeout(Duration.ofMinutes(10)) // To be able to do debugging
+                    .build();
+        }
+
+        @Test
+        void should_return_304_for_matching_problem_json() {
+            should_return_304_for_matching_representation(MediaType.APPLICATION_JSON);
+        }
+
+        @Test
+        void should_return_304_for_matching_error_page() {
+            should_return_304_for_matching_representation(MediaType.TEXT_HTML);
+        }
+
+        @Test
+        void should_use_distinct_entity_tags_per_representation() {
+            assertThat(entityTag(MediaType.APPLICATION_JSON)).isNotEqualTo(entityTag(MediaType.TEXT_HTML));
+        }
+
+        @Test
+        void should_return_404_for_other_entity_tag() {
+            webTestClient.get()
+                    .uri("/non-existing")
+                    .accept(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.IF_NONE_MATCH, "\"other\"")
+                    .exchange()
+                    .expectStatus().isNotFound()
+                    .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON);
+        }
+
+        @Test
+        void should_not_cache_404_of_post() {
+            webTestClient.post()
+                    .uri("/non-existing")
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectHeader().doesNotExist(HttpHeaders.ETAG)
+                    .expectHeader().doesNotExist(HttpHeaders.CACHE_CONTROL);
+        }
+
+        private void should_return_304_for_matching_representation(MediaType mediaType) {
+            String entityTag = entityTag(mediaType);
+
+            webTestClient.get()
+                    .uri("/non-existing")
+                    .accept(mediaType)
+                    .header(HttpHeaders.IF_NONE_MATCH, entityTag)
+                    .exchange()
+                    .expectStatus().isNotModified()
+                    .expectHeader().valueEquals(HttpHeaders.ETAG, entityTag)
+                    .expectHeader().valueEquals(HttpHeaders.CACHE_CONTROL, "max-age=30, public")
+                    .expectBody().isEmpty();
+        }
+
+        private String entityTag(MediaType mediaType) {
+            return webTestClient.get()
+                    .uri("/non-existing")
+                    .accept(mediaType)
+                    .exchange()
+                    .expectStatus().isNotFound()
+                    .expectHeader().valueEquals(HttpHeaders.CACHE_CONTROL, "max-age=30, public")
+                    .expectHeader().values(HttpHeaders.VARY, values -> assertThat(values)
+                            .flatMap(value -> List.of(value.split(",\\s*"))).contains(HttpHeaders.ACCEPT))
+                    .returnResult(String.class)
+                    .getResponseHeaders().getETag();
+        }
+    }
+
+    //******************************************************************************************************************
+    //** Configuration *************************************************************************************************
+    //******************************************************************************************************************
+
+    @Configuration
+    @EnableAutoConfiguration
+    static class TestConfig {}
+
+}
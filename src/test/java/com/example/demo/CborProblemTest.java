@@ -0,0 +1,170 @@
+package com.example.demo;
+
+import com.example.demo.problem.ProblemMediaTypes;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.ProblemDetailJacksonMixin;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.ErrorResponseException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Problems negotiated as {@code application/problem+cbor}, both from the 404 fast path and from the
+ * {@code ResponseEntityExceptionHandler}, decoded by the {@link WebTestClient}.
+ */
+class CborProblemTest {
+
+    //******************************************************************************************************************
+    //** WebMVC ********************************************************************************************************
+    //******************************************************************************************************************
+
+    @Nested
+    @TestPropertySource(
+            properties = {
+                    "spring.main.web-application-type=servlet",
+                    "spring.mvc.problemdetails.enabled=true"
+            }
+    )
+    class WebMvcTests extends Tests {
+    }
+
+    //******************************************************************************************************************
+    //** Webflux *******************************************************************************************************
+    //******************************************************************************************************************
+
+    @Nested
+    @TestPropertySource(
+            properties = {
+                    "spring.main.web-application-type=reactive",
+                    "spring.webflux.problemdetails.enabled=true",
+            }
+    )
+    class WebfluxTests extends Tests {
+    }
+
+    //******************************************************************************************************************
+    //** Tests *********************************************************************************************************
+    //******************************************************************************************************************
+
+    @SpringBootTest(
+            classes = TestConfig.class,
+            webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT
+    )
+    static abstract class Tests {
+
+        @LocalServerPort
+        int port;
+
+        WebTestClient webTestClient;
+
+        @BeforeEach
+        void initWebClient() {
+            ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor()
+                    .mixIn(ProblemDetail.class, ProblemDetailJacksonMixin.class)
+                    .build();
+            webTestClient = WebTestClient.bindToServer()
+                    .baseUrl("http://localhost:" + port)
+                    .responseTimeout(Duration.ofMinutes(10)) // To be able to do debugging
+                    .codecs(configurer -> configurer.customCodecs().register(
+                            new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR, ProblemMediaTypes.APPLICATION_PROBLEM_CBOR)))
+                    .build();
+        }
+
+        @Test
+        void should_return_cbor_problem_for_missing_resource() {
+            webTestClient.get()
+                    .uri("/non-existing")
+                    .accept(ProblemMediaTypes.APPLICATION_PROBLEM_CBOR)
+                    .exchange()
+                    .expectStatus().isNotFound()
+                    .expectHeader().contentTypeCompatibleWith(ProblemMediaTypes.APPLICATION_PROBLEM_CBOR)
+                    .expectBody(ProblemDetail.class).consumeWith(actual -> {
+                        ProblemDetail problem = actual.getResponseBody();
+
+                        assertThat(problem.getStatus()).isEqualTo(HttpStatus.NOT_FOUND.value());
+                        assertThat(problem.getTitle()).isEqualTo(HttpStatus.NOT_FOUND.getReasonPhrase());
+                        assertThat(problem.getInstance()).isEqualTo(URI.create("/non-existing"));
+                    });
+        }
+
+        @Test
+        void should_return_cbor_problem_for_thrown_error_response() {
+            webTestClient.get()
+                    .uri("/throws-a-problem")
+                    .accept(ProblemMediaTypes.APPLICATION_PROBLEM_CBOR)
+                    .exchange()
+                    .expectStatus().isEqualTo(HttpStatus.CONFLICT)
+                    .expectHeader().contentTypeCompatibleWith(ProblemMediaTypes.APPLICATION_PROBLEM_CBOR)
+                    .expectBody(ProblemDetail.class).consumeWith(actual -> {
+                        ProblemDetail problem = actual.getResponseBody();
+
+                        assertThat(problem.getStatus()).isEqualTo(HttpStatus.CONFLICT.value());
+                        assertThat(problem.getDetail()).isEqualTo("Order 42 was already shipped");
+                        assertThat(problem.getProperties()).containsEntry("orderId", 42);
+                    });
+        }
+
+        @Test
+        void should_prefer_json_problem_for_wildcards() {
+            webTestClient.get()
+                    .uri("/throws-a-problem")
+                    .accept(MediaType.ALL)
+                    .exchange()
+                    .expectStatus().isEqualTo(HttpStatus.CONFLICT)
+                    .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON);
+        }
+
+        @Test
+        void should_prefer_json_problem_when_more_acceptable() {
+            webTestClient.get()
+                    .uri("/non-existing")
+                    .header("Accept", "application/problem+json, application/problem+cbor;q=0.5")
+                    .exchange()
+                    .expectStatus().isNotFound()
+                    .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON);
+        }
+    }
+
+    //******************************************************************************************************************
+    //** Application setup *********************************************************************************************
+    //******************************************************************************************************************
+
+    @Configuration
+    @EnableAutoConfiguration
+    @Import({
+            ExampleRestController.class
+    })
+    static class TestConfig {}
+
+    @RestController
+    static class ExampleRestController {
+
+        @GetMapping("/throws-a-problem")
+        public String throwsAProblem() {
+            ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, "Order 42 was already shipped");
+            problem.setProperty("orderId", 42);
+            throw new ErrorResponseException(HttpStatus.CONFLICT, problem, null);
+        }
+
+    }
+
+}
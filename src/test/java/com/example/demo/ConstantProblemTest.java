@@ -0,0 +1,189 @@
+package com.example.demo;
+
+import com.example.demo.problem.ProblemBodyCache;
+import com.example.demo.problem.reactive.ConstantProblem;
+import com.example.demo.problem.reactive.ConstantProblemResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A catch-all advice that returns the shared publisher of a {@link ConstantProblem}, which is written directly by the
+ * {@link ConstantProblemResultHandler}, or by the regular result handling when it is disabled.
+ */
+class ConstantProblemTest {
+
+    @Nested
+    @TestPropertySource(
+            properties = {
+                    "spring.main.web-application-type=reactive",
+                    "spring.webflux.problemdetails.enabled=true"
+            }
+    )
+    class DefaultConfig extends Tests {
+
+        @Override
+        boolean writtenByConstantProblemResultHandler() {
+            return true;
+        }
+    }
+
+    @Nested
+    @TestPropertySource(
+            properties = {
+                    "problem-support.reactive.constant-problems.enabled=false"
+            }
+    )
+    class WithoutConstantProblemResultHandler extends DefaultConfig {
+
+        @Override
+        boolean writtenByConstantProblemResultHandler() {
+            return false;
+        }
+    }
+
+    @SpringBootTest(
+            classes = TestConfig.class,
+            webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT
+    )
+    static abstract class Tests {
+
+        @LocalServerPort
+        int port;
+
+        @Autowired
+        ProblemBodyCache problemBodyCache;
+
+        WebTestClient webTestClient;
+
+        abstract boolean writtenByConstantProblemResultHandler();
+
+        @BeforeEach
+        void initWebClient() {
+            webTestClient = WebTestClient.bindToServer()
+                    .baseUrl("http://localhost:" + port)
+                    .responseTimeout(Duration.ofMinutes(10)) // To be able to do debugging
+                    .build();
+        }
+
+        @Test
+        void should_return_constant_problem_with_instance_of_request() {
+            for (String path : new String[]{"/throws-an-exception", "/throws-another-exception"}) {
+                webTestClient.get()
+                        .uri(path)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .exchange()
+                        .expectStatus().isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON)
+                        .expectBody(ProblemDetail.class).consumeWith(actual -> {
+                            assertThat(actual.getResponseBody().getStatus()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR.value());
+                            assertThat(actual.getResponseBody().getDetail()).isEqualTo("Unexpected internal exception");
+                            assertThat(actual.getResponseBody().getInstance()).isEqualTo(URI.create(path));
+                            assertThat(actual.getResponseBody().getProperties()).containsEntry("from-catch-all", true);
+                        });
+            }
+        }
+
+        /**
+         * The {@link ConstantProblemResultHandler} looks the body up by the constant problem, which is not counted in
+         * the statistics of the body cache, while the regular result handling looks it up by content for every
+         * response.
+         */
+        @Test
+        void should_write_constant_problem_with_result_handler_when_enabled() {
+            webTestClient.get()
+                    .uri("/throws-an-exception")
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus().isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+            ProblemBodyCache.Statistics before = problemBodyCache.getStatistics();
+
+            for (MediaType accept : new MediaType[]{MediaType.APPLICATION_JSON, MediaType.APPLICATION_PROBLEM_JSON}) {
+                webTestClient.get()
+                        .uri("/throws-an-exception")
+                        .accept(accept)
+                        .exchange()
+                        .expectStatus().isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON);
+            }
+
+            ProblemBodyCache.Statistics after = problemBodyCache.getStatistics();
+            if (writtenByConstantProblemResultHandler()) {
+                assertThat(after.hitCount()).isEqualTo(before.hitCount());
+                assertThat(after.missCount()).isEqualTo(before.missCount());
+            } else {
+                assertThat(after.hitCount()).isGreaterThan(before.hitCount());
+            }
+        }
+
+        @Test
+        void should_not_change_constant_problem() {
+            webTestClient.get()
+                    .uri("/throws-an-exception")
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus().isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+
+            assertThat(ConstantProblemControllerAdvice.UNEXPECTED.getBody().getInstance()).isNull();
+        }
+    }
+
+    @Configuration
+    @EnableAutoConfiguration
+    @Import({ThrowingController.class, ConstantProblemControllerAdvice.class})
+    static class TestConfig {
+    }
+
+    @RestController
+    static class ThrowingController {
+
+        @GetMapping(path = "/throws-an-exception", produces = MediaType.APPLICATION_JSON_VALUE)
+        public String throwsAnException() {
+            throw new RuntimeException("Something happened");
+        }
+
+        @GetMapping(path = "/throws-another-exception", produces = MediaType.APPLICATION_JSON_VALUE)
+        public String throwsAnotherException() {
+            throw new IllegalStateException("Something else happened");
+        }
+    }
+
+    @ControllerAdvice
+    static class ConstantProblemControllerAdvice {
+
+        static final ConstantProblem UNEXPECTED = ConstantProblem.of(unexpected());
+
+        @ExceptionHandler
+        public Mono<ConstantProblem> convertToProblem(Exception ex) {
+            return UNEXPECTED.mono();
+        }
+
+        private static ProblemDetail unexpected() {
+            ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected internal exception");
+            problemDetail.setProperty("from-catch-all", true);
+            return problemDetail;
+        }
+    }
+
+}
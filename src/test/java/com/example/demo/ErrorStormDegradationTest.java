@@ -0,0 +1,105 @@
+package com.example.demo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Once most requests end up in the catch-all advice, its problems are replaced by a minimal 503 problem with a
+ * Retry-After header.
+ * <p>
+ * The context is closed after the tests, as its error storm is still active.
+ */
+class ErrorStormDegradationTest {
+
+    @Nested
+    @SpringBootTest(
+            classes = {
+                    ResponseEntityExceptionHandlerOrderingTest.TestConfig.class,
+                    ResponseEntityExceptionHandlerOrderingTest.WebMvcTests.CatchAllWebMvcControllerAdvice.class
+            },
+            webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = {
+                    "spring.main.web-application-type=servlet",
+                    "spring.mvc.problemdetails.enabled=true",
+                    "problem-support.error-storm.enabled=true",
+                    "problem-support.error-storm.minimum-requests=2"
+            }
+    )
+    @DirtiesContext
+    class WebMvcErrorStorm extends Tests {
+    }
+
+    @Nested
+    @SpringBootTest(
+            classes = {
+                    ResponseEntityExceptionHandlerOrderingTest.TestConfig.class,
+                    ResponseEntityExceptionHandlerOrderingTest.WebfluxTests.CatchAllWebfluxControllerAdvice.class
+            },
+            webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = {
+                    "spring.main.web-application-type=reactive",
+                    "spring.webflux.problemdetails.enabled=true",
+                    "problem-support.error-storm.enabled=true",
+                    "problem-support.error-storm.minimum-requests=2"
+            }
+    )
+    @DirtiesContext
+    class WebfluxErrorStorm extends Tests {
+    }
+
+    static abstract class Tests {
+
+        @LocalServerPort
+        int port;
+
+        WebTestClient webTestClient;
+
+        @BeforeEach
+        void initWebClient() {
+            webTestClient = WebTestClient.bindToServer()
+                    .baseUrl("http://localhost:" + port)
+                    .responseTimeout(Duration.ofMinutes(10)) // To be able to do debugging
+                    .build();
+        }
+
+        @Test
+        void should_degrade_catch_all_problems_during_error_storm() {
+            for (int i = 0; i < 2; i++) {
+                webTestClient.get()
+                        .uri("/throws-an-exception")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .exchange()
+                        .expectStatus().isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .expectBody(ProblemDetail.class).consumeWith(actual -> {
+                            assertThat(actual.getResponseBody().getProperties()).containsEntry("from-catch-all", true);
+                        });
+            }
+
+            webTestClient.get()
+                    .uri("/throws-an-exception")
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                    .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "5")
+                    .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON)
+                    .expectBody(ProblemDetail.class).consumeWith(actual -> {
+                        assertThat(actual.getResponseBody().getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+                        assertThat(actual.getResponseBody().getProperties()).isNull();
+                    });
+        }
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.example.demo;
+
+import com.example.demo.ResponseEntityExceptionHandlerOrderingTest.WebMvcTests.CatchAllWebMvcControllerAdvice;
+import com.example.demo.ResponseEntityExceptionHandlerOrderingTest.WebfluxTests.CatchAllWebfluxControllerAdvice;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The ordering tests, with the handler mappings answering the wrong HTTP method and the unknown path with an error
+ * response instead of an exception, so the catch-all advice does not need any ordered ResponseEntityExceptionHandler
+ * in front of it.
+ */
+class HandlerMappingErrorResponseTest {
+
+    @Nested
+    @SpringBootTest(
+            classes = {
+                    ResponseEntityExceptionHandlerOrderingTest.TestConfig.class,
+                    CatchAllWebMvcControllerAdvice.class
+            },
+            webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = {
+                    "spring.main.web-application-type=servlet",
+                    "spring.mvc.problemdetails.enabled=true",
+                    "spring.mvc.static-path-pattern=/static/**",
+                    "problem-support.handler-mapping-error-responses.enabled=true"
+            }
+    )
+    class WebMvcWithHandlerMappingErrorResponses extends Tests {
+    }
+
+    @Nested
+    @SpringBootTest(
+            classes = {
+                    ResponseEntityExceptionHandlerOrderingTest.TestConfig.class,
+                    CatchAllWebfluxControllerAdvice.class
+            },
+            webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = {
+                    "spring.main.web-application-type=reactive",
+                    "spring.webflux.problemdetails.enabled=true",
+                    "spring.webflux.static-path-pattern=/static/**",
+                    "problem-support.handler-mapping-error-responses.enabled=true"
+            }
+    )
+    class WebfluxWithHandlerMappingErrorResponses extends Tests {
+    }
+
+    static abstract class Tests extends ResponseEntityExceptionHandlerOrderingTest.AllTests {
+
+        @Test
+        void should_return_allowed_methods_for_wrong_http_method() {
+            webTestClient.delete()
+                    .uri("/")
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus().isEqualTo(HttpStatus.METHOD_NOT_ALLOWED)
+                    .expectHeader().value(HttpHeaders.ALLOW, allow -> assertThat(allow).contains(HttpMethod.GET.name()));
+        }
+
+        @Test
+        void should_return_404_problem_details_on_unmapped_path() {
+            webTestClient.get()
+                    .uri("/non-existing")
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus().isNotFound()
+                    .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON)
+                    .expectBody(ProblemDetail.class).consumeWith(actual -> {
+                        assertThat(actual.getResponseBody().getStatus()).isEqualTo(HttpStatus.NOT_FOUND.value());
+                        assertThat(actual.getResponseBody().getProperties()).isNull();
+                    });
+        }
+
+        @Test
+        void should_keep_serving_mapped_paths() {
+            webTestClient.get()
+                    .uri("/")
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus().isOk();
+        }
+    }
+
+}
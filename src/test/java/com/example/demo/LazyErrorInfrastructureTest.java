@@ -0,0 +1,102 @@
+package com.example.demo;
+
+import com.example.demo.problem.LazyErrorInfrastructurePostProcessor;
+import com.example.demo.problem.reactive.LazyErrorWebExceptionHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The {@link LazyErrorInfrastructurePostProcessor} leaves the error handling infrastructure uncreated until the first
+ * error that needs it, which is rendered as before.
+ */
+class LazyErrorInfrastructureTest {
+
+    @Nested
+    @TestPropertySource(
+            properties = {
+                    "spring.main.web-application-type=servlet",
+                    "spring.mvc.problemdetails.enabled=true"
+            }
+    )
+    class WebMvcTests extends Tests {
+
+        @Override
+        String errorHandlerBeanName() {
+            return "basicErrorController";
+        }
+    }
+
+    @Nested
+    @TestPropertySource(
+            properties = {
+                    "spring.main.web-application-type=reactive",
+                    "spring.webflux.problemdetails.enabled=true"
+            }
+    )
+    class WebfluxTests extends Tests {
+
+        @Override
+        String errorHandlerBeanName() {
+            return LazyErrorWebExceptionHandler.targetBeanName("errorWebExceptionHandler");
+        }
+    }
+
+    @SpringBootTest(
+            classes = TestConfig.class,
+            webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT
+    )
+    static abstract class Tests {
+
+        @LocalServerPort
+        int port;
+
+        @Autowired
+        ConfigurableApplicationContext context;
+
+        WebTestClient webTestClient;
+
+        @BeforeEach
+        void initWebClient() {
+            webTestClient = WebTestClient.bindToServer()
+                    .baseUrl("http://localhost:" + port)
+                    .responseTimeout(Duration.ofMinutes(10)) // To be able to do debugging
+                    .build();
+        }
+
+        abstract String errorHandlerBeanName();
+
+        @Test
+        void should_create_error_handler_on_first_error() {
+            assertThat(context.getBeanFactory().containsSingleton(errorHandlerBeanName())).isFalse();
+
+            webTestClient.get()
+                    .uri("/non-existing")
+                    .accept(MediaType.TEXT_HTML)
+                    .exchange()
+                    .expectStatus().isEqualTo(HttpStatus.NOT_FOUND)
+                    .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_HTML);
+
+            assertThat(context.getBeanFactory().containsSingleton(errorHandlerBeanName())).isTrue();
+        }
+    }
+
+    @Configuration
+    @EnableAutoConfiguration
+    static class TestConfig {}
+
+}
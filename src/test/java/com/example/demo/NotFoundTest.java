@@ -1,5 +1,9 @@
 package com.example.demo;
 
+import com.example.demo.problem.ResourceMissCache;
+import com.example.demo.problem.StaticResourceIndex;
+import com.example.demo.problem.reactive.NotFoundProblemWebExceptionHandler;
+import com.example.demo.problem.servlet.NotFoundProblemFilter;
 import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -19,9 +23,12 @@ import org.springframework.web.reactive.resource.ResourceWebHandler;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.NoHandlerFoundException;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
 import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -105,23 +112,31 @@ class NotFoundTest {
         }
 
         /**
-         * This test fails for both WebMVC and WebFlux when using the standard configuration, meaning the static
+         * Without the problem support, this test fails for both WebMVC and WebFlux when using the standard configuration, meaning the static
          * resource handler is configured to handle the {@code /**} path pattern.
          *
          * Reason:
          *  - For WebMVC the {@link ResourceHttpRequestHandler} handles this request because it is mapped on {@code /**}.
-         *    It will not find any static resources for the non existing path, so it will then call the {@link HttpServletResponse#sendError(int)} with a 404 status.
-         *    This bypasses the {@link ResponseEntityExceptionHandler} to handle the 404.
+         *    It will not find any static resources for the non existing path, so it throws a
+         *    {@link NoResourceFoundException}, which is handled by the {@link ResponseEntityExceptionHandler} when problem
+         *    details are enabled.
          *
          *    If we change the static resource path such that no handler is found for this request, and {@code spring.mvc.throw-exception-if-no-handler-found} is set not to {@code false},
          *    then this will result in a {@link NoHandlerFoundException} that will be handled by the {@link ResponseEntityExceptionHandler}.
          *
+         *    When no problem details advice handles these exceptions, the {@code DefaultHandlerExceptionResolver} calls
+         *    {@link HttpServletResponse#sendError(int, String)} instead, and the {@link NotFoundProblemFilter} captures
+         *    that 404 before the servlet container starts the ERROR dispatch, and writes the problem details directly.
+         *
          *  - For Webflux the {@link ResourceWebHandler} does return a Mono with a {@link ResponseStatusException} error,
          *    but it doesn't get handled by the {@link ResponseEntityExceptionHandler}, but instead will be handled by the {@link DefaultErrorWebExceptionHandler}.
          *
          *    If we change the static resource path such that no handler is found for this request,
          *    then this will also result in a {@link ResponseStatusException}, but at an earlier stage where it will be handled by the {@link DispatcherHandler#handleDispatchError} method.
          *    This then ensures it does get handled by the {@link ResponseEntityExceptionHandler}.
+         *
+         *    The {@link NotFoundProblemWebExceptionHandler} is ordered before the {@link DefaultErrorWebExceptionHandler} and renders the 404
+         *    as problem details, so this test also succeeds with the resource handler on {@code /**}.
          */
         @Test
         void should_return_404_problem_details_on_non_existing_path() {
@@ -136,6 +151,28 @@ class NotFoundTest {
                     });
         }
 
+        /**
+         * With the resource handler on {@code /**}, the first miss of a path is resolved against the resource locations,
+         * while the next ones are answered from the {@link StaticResourceIndex} or the {@link ResourceMissCache}
+         * without resolving it again. Both are signalled with the same exception, so they render the same problem.
+         */
+        @Test
+        void should_return_same_404_problem_details_on_repeated_non_existing_resource() {
+            List<ProblemDetail> problems = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                webTestClient.get()
+                        .uri("/non-existing.css")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .exchange()
+                        .expectStatus().isNotFound()
+                        .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON)
+                        .expectBody(ProblemDetail.class).consumeWith(actual -> problems.add(actual.getResponseBody()));
+            }
+
+            assertThat(problems.get(0).getStatus()).isEqualTo(HttpStatus.NOT_FOUND.value());
+            assertThat(problems.get(1)).isEqualTo(problems.get(0));
+        }
+
     }
 
     //******************************************************************************************************************
@@ -43,6 +43,15 @@ class NotFoundWhenHTMLAcceptHeaderTest {
         class WithoutResourceHandlerOnRoot extends DefaultConfig {
         }
 
+        @Nested
+        @TestPropertySource(
+                properties = {
+                        "problem-support.error-page.enabled=true"
+                }
+        )
+        class WithPreRenderedErrorPage extends DefaultConfig {
+        }
+
     }
 
     //******************************************************************************************************************
@@ -70,6 +79,15 @@ class NotFoundWhenHTMLAcceptHeaderTest {
         )
         class WithoutResourceHandlerOnRoot extends DefaultConfig {
         }
+
+        @Nested
+        @TestPropertySource(
+                properties = {
+                        "problem-support.error-page.enabled=true"
+                }
+        )
+        class WithPreRenderedErrorPage extends DefaultConfig {
+        }
     }
 
     //******************************************************************************************************************
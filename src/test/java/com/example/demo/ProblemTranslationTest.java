@@ -0,0 +1,59 @@
+package com.example.demo;
+
+import com.example.demo.problem.ProblemTranslationRegistrar;
+import org.junit.jupiter.api.Nested;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+
+/**
+ * The ordering tests, with the catch-all advice replaced by a catch-all translation, without any ordered
+ * ResponseEntityExceptionHandler.
+ */
+class ProblemTranslationTest {
+
+    @Nested
+    @SpringBootTest(
+            classes = {
+                    ResponseEntityExceptionHandlerOrderingTest.TestConfig.class,
+                    CatchAllTranslation.class
+            },
+            webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = {
+                    "spring.main.web-application-type=servlet",
+                    "spring.mvc.problemdetails.enabled=true",
+            }
+    )
+    class WebMvcWithCatchAllTranslation extends ResponseEntityExceptionHandlerOrderingTest.AllTests {
+    }
+
+    @Nested
+    @SpringBootTest(
+            classes = {
+                    ResponseEntityExceptionHandlerOrderingTest.TestConfig.class,
+                    CatchAllTranslation.class
+            },
+            webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = {
+                    "spring.main.web-application-type=reactive",
+                    "spring.webflux.problemdetails.enabled=true",
+            }
+    )
+    class WebfluxWithCatchAllTranslation extends ResponseEntityExceptionHandlerOrderingTest.AllTests {
+    }
+
+    @Configuration
+    static class CatchAllTranslation {
+
+        @Bean
+        ProblemTranslationRegistrar catchAllTranslation() {
+            ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected internal exception");
+            problemDetail.setProperty("from-catch-all", true);
+
+            return translations -> translations.constant(Exception.class, problemDetail);
+        }
+    }
+
+}
@@ -0,0 +1,129 @@
+package com.example.demo;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Fails a test class when a virtual thread got pinned to its carrier thread while handling an error.
+ * <p>
+ * A JFR recording of the {@code jdk.VirtualThreadPinned} events is kept for every top-level test class. Afterwards,
+ * the events with a frame of the error dispatch in their stack trace fail the class: the exception resolution of the
+ * dispatcher, the problem rendering, the error controller and the error page dispatch of the container. Only methods
+ * that run for errors are matched, not the filters or valves that every request passes through, so pinning elsewhere,
+ * for instance in the I/O of the container, is outside the scope of these tests.
+ * <p>
+ * The error dispatch frames are far from the top of the stack, so the {@code virtualThreadTest} task raises the JFR
+ * stack depth. An event whose stack trace is still truncated can not be told apart, and fails the class as well.
+ * <p>
+ * This extension is registered through the service loader, it is only active when extension auto-detection is
+ * enabled, as done by the {@code virtualThreadTest} task of the build.
+ */
+public class VirtualThreadPinningExtension implements BeforeAllCallback, AfterAllCallback {
+
+    private static final String EVENT_NAME = "jdk.VirtualThreadPinned";
+
+    /**
+     * Classes whose methods only run while handling an error.
+     */
+    private static final Set<String> ERROR_DISPATCH_CLASSES = Set.of(
+            "com.example.demo.problem.ProblemBodyCache",
+            "com.example.demo.problem.servlet.ProblemTranslationHandlerExceptionResolver",
+            "org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler",
+            "org.springframework.boot.autoconfigure.web.servlet.error.BasicErrorController"
+    );
+
+    /**
+     * Methods that only run while handling an error, of classes that every request passes through.
+     */
+    private static final Set<String> ERROR_DISPATCH_METHODS = Set.of(
+            "com.example.demo.problem.servlet.NotFoundProblemFilter$NotFoundCapturingResponse.sendError",
+            "com.example.demo.problem.servlet.ProblemDetailHttpMessageConverter.writeInternal",
+            "org.springframework.web.servlet.DispatcherServlet.processHandlerException",
+            "org.springframework.boot.web.servlet.support.ErrorPageFilter.handleException",
+            "org.springframework.boot.web.servlet.support.ErrorPageFilter.handleErrorStatus",
+            "org.apache.catalina.core.StandardHostValve.status",
+            "org.apache.catalina.core.StandardHostValve.throwable"
+    );
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(VirtualThreadPinningExtension.class);
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        if (!isTopLevel(context)) {
+            return;
+        }
+
+        Recording recording = new Recording();
+        recording.enable(EVENT_NAME).withThreshold(Duration.ZERO).withStackTrace();
+        recording.start();
+        context.getStore(NAMESPACE).put(Recording.class, recording);
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) throws IOException {
+        Recording recording = context.getStore(NAMESPACE).remove(Recording.class, Recording.class);
+        if (recording == null) {
+            return;
+        }
+
+        Path file = Files.createTempFile("virtual-thread-pinning", ".jfr");
+        try (recording) {
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> pinned = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals(EVENT_NAME))
+                    .filter(VirtualThreadPinningExtension::isErrorDispatch)
+                    .toList();
+            if (!pinned.isEmpty()) {
+                throw new AssertionError("Virtual threads got pinned while handling errors in "
+                        + context.getRequiredTestClass().getSimpleName() + ":\n"
+                        + pinned.stream().map(VirtualThreadPinningExtension::describe).collect(Collectors.joining("\n")));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static boolean isTopLevel(ExtensionContext context) {
+        return context.getRequiredTestClass().getEnclosingClass() == null;
+    }
+
+    private static boolean isErrorDispatch(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return false;
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String className = frame.getMethod().getType().getName();
+            if (ERROR_DISPATCH_CLASSES.contains(className)
+                    || ERROR_DISPATCH_METHODS.contains(className + "." + frame.getMethod().getName())) {
+                return true;
+            }
+        }
+        return stackTrace.isTruncated();
+    }
+
+    private static String describe(RecordedEvent event) {
+        String truncated = (event.getStackTrace().isTruncated() ? " (truncated stack trace)" : "");
+        return event.getDuration() + " pinned" + truncated + " at\n" + event.getStackTrace().getFrames().stream()
+                .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + "(line " + frame.getLineNumber() + ")")
+                .collect(Collectors.joining("\n"));
+    }
+
+}
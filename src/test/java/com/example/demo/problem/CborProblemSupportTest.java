@@ -0,0 +1,37 @@
+package com.example.demo.problem;
+
+import com.example.demo.problem.servlet.ProblemDetailHttpMessageConverter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.FilteredClassLoader;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@code jackson-dataformat-cbor} is an optional dependency, CBOR problems are only written when the application
+ * adds it.
+ */
+class CborProblemSupportTest {
+
+    WebApplicationContextRunner contextRunner = new WebApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(JacksonAutoConfiguration.class, ProblemSupportAutoConfiguration.class))
+            .withPropertyValues("spring.mvc.problemdetails.enabled=true");
+
+    @Test
+    void should_write_cbor_problems_when_cbor_is_present() {
+        contextRunner.run(context -> assertThat(context.getBeansOfType(ProblemDetailHttpMessageConverter.class)).hasSize(2));
+    }
+
+    @Test
+    void should_only_write_json_problems_without_cbor() {
+        contextRunner.withClassLoader(new FilteredClassLoader(CBORFactory.class))
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    assertThat(context.getBeansOfType(ProblemDetailHttpMessageConverter.class)).hasSize(1);
+                });
+    }
+
+}
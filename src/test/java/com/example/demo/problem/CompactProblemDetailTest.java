@@ -0,0 +1,92 @@
+package com.example.demo.problem;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.net.URI;
+import java.util.AbstractMap;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class CompactProblemDetailTest {
+
+    static final CompactProblemDetail.Extensions EXTENSIONS = CompactProblemDetail.Extensions.of("from-catch-all", "trace-id");
+
+    ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    ProblemDetailJsonWriter writer = new ProblemDetailJsonWriter(objectMapper);
+
+    @Test
+    void should_store_declared_properties_without_map() {
+        CompactProblemDetail problemDetail = catchAllProblem();
+
+        assertThat(problemDetail.getUndeclaredProperties()).isNull();
+        assertThat(problemDetail.getProperties()).containsExactly(entry("from-catch-all", true));
+    }
+
+    @Test
+    void should_keep_declared_properties_first() {
+        CompactProblemDetail problemDetail = catchAllProblem();
+        problemDetail.setProperty("errors", List.of("must not be blank"));
+        problemDetail.setProperty("trace-id", null);
+
+        assertThat(problemDetail.getProperties()).containsExactly(
+                entry("from-catch-all", true), entry("trace-id", null), entry("errors", List.of("must not be blank")));
+    }
+
+    @Test
+    void should_use_properties_map_once_read() {
+        CompactProblemDetail problemDetail = catchAllProblem();
+        problemDetail.getProperties().put("from-catch-all", false);
+        problemDetail.setProperty("trace-id", "42");
+
+        assertThat(problemDetail.getProperties()).containsExactly(entry("from-catch-all", false), entry("trace-id", "42"));
+    }
+
+    @Test
+    void should_equal_plain_problem_detail() {
+        ProblemDetail plain = ProblemDetail.forStatusAndDetail(HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected internal exception");
+        plain.setProperty("from-catch-all", true);
+
+        assertThat(catchAllProblem()).isEqualTo(plain).hasSameHashCodeAs(plain);
+    }
+
+    @Test
+    void should_write_the_same_json_as_a_plain_problem_detail() throws Exception {
+        CompactProblemDetail problemDetail = catchAllProblem();
+        problemDetail.setProperty("errors", List.of("must not be blank"));
+        problemDetail.setInstance(URI.create("/throws-an-exception"));
+
+        ProblemDetail plain = ProblemDetail.forStatusAndDetail(HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected internal exception");
+        plain.setInstance(URI.create("/throws-an-exception"));
+        plain.setProperty("from-catch-all", true);
+        plain.setProperty("errors", List.of("must not be blank"));
+
+        assertThat(new String(writer.writeAsBytes(problemDetail), StandardCharsets.UTF_8))
+                .isEqualTo(objectMapper.writeValueAsString(plain));
+        assertThat(problemDetail.getUndeclaredProperties()).containsOnlyKeys("errors");
+    }
+
+    @Test
+    void should_reject_duplicate_extensions() {
+        assertThatIllegalArgumentException().isThrownBy(() -> CompactProblemDetail.Extensions.of("trace-id", "trace-id"));
+    }
+
+    private static CompactProblemDetail catchAllProblem() {
+        CompactProblemDetail problemDetail = CompactProblemDetail.forStatusAndDetail(EXTENSIONS, HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected internal exception");
+        problemDetail.setProperty("from-catch-all", true);
+        return problemDetail;
+    }
+
+    private static Map.Entry<String, Object> entry(String key, Object value) {
+        return new AbstractMap.SimpleEntry<>(key, value);
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.example.demo.problem;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ErrorRepresentationResolverTest {
+
+    ErrorRepresentationResolver resolver = new ErrorRepresentationResolver(2);
+
+    @Test
+    void should_resolve_html_for_browsers() {
+        String accept = "text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,*/*;q=0.8";
+
+        assertThat(resolver.resolve(accept)).isEqualTo(ErrorRepresentation.HTML);
+    }
+
+    @Test
+    void should_resolve_problem_for_api_clients() {
+        assertThat(resolver.resolve("application/json")).isEqualTo(ErrorRepresentation.PROBLEM_JSON);
+        assertThat(resolver.resolve("application/*+json")).isEqualTo(ErrorRepresentation.PROBLEM_JSON);
+        assertThat(resolver.resolve("application/json, text/html;q=0.9")).isEqualTo(ErrorRepresentation.PROBLEM_JSON);
+        assertThat(resolver.resolve("*/*")).isEqualTo(ErrorRepresentation.PROBLEM_JSON);
+        assertThat(resolver.resolve(null)).isEqualTo(ErrorRepresentation.PROBLEM_JSON);
+    }
+
+    @Test
+    void should_resolve_cbor_problem_only_when_preferred_explicitly() {
+        assertThat(resolver.resolve("application/problem+cbor")).isEqualTo(ErrorRepresentation.PROBLEM_CBOR);
+        assertThat(resolver.resolve("application/cbor, application/json;q=0.5")).isEqualTo(ErrorRepresentation.PROBLEM_CBOR);
+        assertThat(resolver.resolve("application/problem+cbor, */*")).isEqualTo(ErrorRepresentation.PROBLEM_JSON);
+        assertThat(resolver.resolve("text/html, application/problem+cbor;q=0.9")).isEqualTo(ErrorRepresentation.HTML);
+    }
+
+    @Test
+    void should_resolve_nothing_when_neither_is_acceptable() {
+        assertThat(resolver.resolve("image/png")).isNull();
+        assertThat(resolver.resolve("image/png")).isNull();
+    }
+
+}
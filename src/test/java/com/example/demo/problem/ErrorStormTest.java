@@ -0,0 +1,76 @@
+package com.example.demo.problem;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ErrorStormTest {
+
+    AtomicLong nanoTime = new AtomicLong();
+
+    List<ErrorStormEvent> events = new ArrayList<>();
+
+    ErrorStorm errorStorm = new ErrorStorm(Duration.ofSeconds(10), 0.5, 4, event -> events.add((ErrorStormEvent) event), nanoTime::get);
+
+    @Test
+    void should_start_storm_when_error_rate_reaches_threshold() {
+        record(200, 500, 500);
+        assertThat(errorStorm.isActive()).as("not enough requests").isFalse();
+
+        record(500);
+
+        assertThat(errorStorm.isActive()).isTrue();
+        assertThat(events).singleElement().satisfies(event -> {
+            assertThat(event.isActive()).isTrue();
+            assertThat(event.getErrorRate()).isEqualTo(0.75);
+        });
+    }
+
+    @Test
+    void should_skip_stack_traces_during_storm() {
+        ProblemStackTraces stackTraces = new ProblemStackTraces(EnumSet.noneOf(HttpStatus.Series.class), errorStorm);
+        record(500, 500, 500, 500);
+
+        assertThat(stackTraces.isCaptured(HttpStatus.INTERNAL_SERVER_ERROR)).isFalse();
+        assertThat(new ProblemException(stackTraces, HttpStatus.INTERNAL_SERVER_ERROR).getStackTrace()).isEmpty();
+        assertThat(ProblemStackTraces.CAPTURED.isCaptured(HttpStatus.INTERNAL_SERVER_ERROR)).as("other contexts").isTrue();
+    }
+
+    @Test
+    void should_end_storm_when_error_rate_drops_below_half_the_threshold() {
+        record(500, 500, 500, 500);
+
+        record(200, 200, 200, 200);
+        assertThat(errorStorm.isActive()).as("error rate of 0.5").isTrue();
+
+        record(200, 200, 200, 200, 200, 200, 200, 200, 200);
+
+        assertThat(errorStorm.isActive()).isFalse();
+        assertThat(events).extracting(ErrorStormEvent::isActive).containsExactly(true, false);
+    }
+
+    @Test
+    void should_forget_errors_outside_the_window() {
+        record(500, 500, 500, 500);
+
+        nanoTime.addAndGet(Duration.ofSeconds(10).toNanos());
+        record(200);
+
+        assertThat(errorStorm.isActive()).isFalse();
+        assertThat(errorStorm.getErrorRate()).isZero();
+    }
+
+    private void record(int... statuses) {
+        for (int status : statuses) {
+            errorStorm.record(status);
+        }
+    }
+
+}
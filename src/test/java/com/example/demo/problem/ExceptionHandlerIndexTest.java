@@ -0,0 +1,67 @@
+package com.example.demo.problem;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.ErrorResponseException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExceptionHandlerIndexTest {
+
+    ExceptionHandlerIndex<String> index = ExceptionHandlerIndex.of(orderedAdvices());
+
+    @Test
+    void should_resolve_to_first_advice_in_order() {
+        ExceptionHandlerIndex.Match<String> match = index.lookup(new ErrorResponseException(HttpStatus.BAD_REQUEST));
+
+        assertThat(match.advice()).isEqualTo("problems");
+        assertThat(match.method().getName()).isEqualTo("handleErrorResponse");
+    }
+
+    @Test
+    void should_resolve_to_later_advice_when_earlier_ones_do_not_match() {
+        ExceptionHandlerIndex.Match<String> match = index.lookup(new RuntimeException("Something happened"));
+
+        assertThat(match.advice()).isEqualTo("catch-all");
+    }
+
+    /**
+     * Like the framework, an earlier advice that handles a cause wins over a later advice that handles the exception.
+     */
+    @Test
+    void should_prefer_earlier_advice_handling_the_cause() {
+        ExceptionHandlerIndex.Match<String> match = index.lookup(new RuntimeException(new ErrorResponseException(HttpStatus.BAD_REQUEST)));
+
+        assertThat(match.advice()).isEqualTo("problems");
+    }
+
+    @Test
+    void should_not_resolve_unhandled_throwable() {
+        assertThat(index.lookup(new Error("fatal"))).isNull();
+    }
+
+    private static Map<String, ExceptionHandlerMethodResolver> orderedAdvices() {
+        Map<String, ExceptionHandlerMethodResolver> advices = new LinkedHashMap<>();
+        advices.put("problems", new ExceptionHandlerMethodResolver(ProblemsAdvice.class));
+        advices.put("catch-all", new ExceptionHandlerMethodResolver(CatchAllAdvice.class));
+        return advices;
+    }
+
+    static class ProblemsAdvice {
+
+        @ExceptionHandler
+        void handleErrorResponse(ErrorResponseException ex) {}
+    }
+
+    static class CatchAllAdvice {
+
+        @ExceptionHandler
+        void convertToProblem(Exception ex) {}
+    }
+
+}
@@ -0,0 +1,145 @@
+package com.example.demo.problem;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExceptionReporterTest {
+
+    List<List<ExceptionReport>> batches = new CopyOnWriteArrayList<>();
+
+    @Test
+    void should_deduplicate_exceptions_thrown_from_the_same_place() {
+        ExceptionReporter reporter = reporter(16, 16, Map.of());
+        for (int i = 0; i < 3; i++) {
+            reporter.report(exception("Something happened " + i));
+        }
+        reporter.report(new IllegalStateException("Something else happened"));
+
+        assertThat(reporter.drain()).isEqualTo(4);
+
+        assertThat(batches).singleElement().satisfies(batch -> {
+            assertThat(batch).extracting(ExceptionReport::count).containsExactly(3L, 1L);
+            assertThat(batch.get(0).exception()).hasMessage("Something happened 0");
+        });
+    }
+
+    @Test
+    void should_write_in_batches() {
+        ExceptionReporter reporter = reporter(16, 2, Map.of());
+        for (int i = 0; i < 3; i++) {
+            reporter.report(new IllegalStateException("Something happened"));
+        }
+
+        assertThat(reporter.drain()).isEqualTo(2);
+        assertThat(reporter.drain()).isEqualTo(1);
+        assertThat(reporter.drain()).isZero();
+        assertThat(batches).hasSize(2);
+        assertThat(reporter.getStatistics().writtenCount()).isEqualTo(3);
+    }
+
+    @Test
+    void should_drop_reports_when_buffer_is_full() {
+        ExceptionReporter reporter = reporter(4, 16, Map.of());
+        for (int i = 0; i < 6; i++) {
+            reporter.report(exception("Something happened"));
+        }
+
+        assertThat(reporter.getStatistics().droppedCount()).isEqualTo(2);
+        assertThat(reporter.getStatistics().pending()).isEqualTo(4);
+
+        reporter.drain();
+
+        assertThat(reporter.report(exception("Something happened"))).isTrue();
+    }
+
+    @Test
+    void should_sample_by_closest_type() {
+        ExceptionReporter reporter = reporter(16, 16, Map.of(
+                RuntimeException.class.getName(), 0.0,
+                IllegalArgumentException.class.getName(), 1.0));
+
+        assertThat(reporter.report(new IllegalStateException())).isFalse();
+        assertThat(reporter.report(new NumberFormatException())).isTrue();
+        assertThat(reporter.report(new Exception())).isTrue();
+        assertThat(reporter.getStatistics().sampledOutCount()).isEqualTo(1);
+    }
+
+    @Test
+    void should_fingerprint_causes() {
+        IllegalStateException cause = new IllegalStateException("cause");
+
+        assertThat(ExceptionReporter.fingerprint(new RuntimeException("Something happened", cause)))
+                .startsWith(RuntimeException.class.getName() + " at ")
+                .contains(" <- " + IllegalStateException.class.getName() + " at ");
+    }
+
+    @Test
+    void should_write_reports_of_concurrent_threads_in_background() throws Exception {
+        int threadCount = 8;
+        int reportsPerThread = 1000;
+        ExceptionReporter reporter = new ExceptionReporter(batches::add, threadCount * reportsPerThread, 64, Duration.ofMillis(10), Map.of());
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < threadCount; i++) {
+                executor.execute(() -> {
+                    awaitQuietly(start);
+                    for (int j = 0; j < reportsPerThread; j++) {
+                        reporter.report(exception("Something happened"));
+                    }
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            reporter.close();
+        }
+
+        List<ExceptionReport> reports = new ArrayList<>();
+        batches.forEach(reports::addAll);
+        assertThat(reports.stream().mapToLong(ExceptionReport::count).sum()).isEqualTo(threadCount * reportsPerThread);
+        assertThat(reporter.getStatistics().droppedCount()).isZero();
+    }
+
+    @Test
+    void should_start_background_thread_on_first_report() {
+        new ExceptionReporter(batches::add, 16, 16, Duration.ofMillis(10), Map.of()).close();
+        assertThat(batches).as("closed without a report").isEmpty();
+
+        ExceptionReporter reporter = new ExceptionReporter(batches::add, 16, 16, Duration.ofMillis(10), Map.of());
+        reporter.report(exception("Something happened"));
+        reporter.close();
+
+        assertThat(batches).singleElement().satisfies(batch -> assertThat(batch).singleElement()
+                .satisfies(report -> assertThat(report.count()).isEqualTo(1)));
+    }
+
+    private ExceptionReporter reporter(int bufferSize, int batchSize, Map<String, Double> sampleRates) {
+        return new ExceptionReporter(batches::add, bufferSize, batchSize, Duration.ofSeconds(1), sampleRates, false);
+    }
+
+    private static RuntimeException exception(String message) {
+        return new RuntimeException(message);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
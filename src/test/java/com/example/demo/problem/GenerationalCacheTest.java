@@ -0,0 +1,45 @@
+package com.example.demo.problem;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GenerationalCacheTest {
+
+    GenerationalCache<String, Integer> cache = new GenerationalCache<>(4);
+
+    @Test
+    void should_evict_entries_that_are_not_used_for_two_generations() {
+        cache.put("a", 1);
+        for (int i = 0; i < 4; i++) {
+            cache.put("other-" + i, i);
+        }
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.size()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void should_keep_entries_that_are_used() {
+        cache.put("a", 1);
+        for (int i = 0; i < 100; i++) {
+            cache.put("other-" + i, i);
+            assertThat(cache.get("a")).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void should_remove_entries_from_both_generations() {
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+
+        cache.remove("a");
+        cache.remove("c");
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("b")).isEqualTo(2);
+        assertThat(cache.get("c")).isNull();
+    }
+
+}
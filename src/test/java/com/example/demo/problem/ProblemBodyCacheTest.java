@@ -0,0 +1,89 @@
+package com.example.demo.problem;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProblemBodyCacheTest {
+
+    ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    ProblemBodyCache cache = new ProblemBodyCache(objectMapper, 4);
+
+    @Test
+    void should_splice_instance_into_cached_body() throws Exception {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected internal exception");
+        problemDetail.setProperty("from-catch-all", true);
+
+        ProblemBody body = cache.get(problemDetail, MediaType.APPLICATION_PROBLEM_JSON);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        body.writeTo(outputStream, URI.create("/throws-an-exception"));
+
+        ProblemDetail actual = objectMapper.readValue(outputStream.toByteArray(), ProblemDetail.class);
+        assertThat(actual.getStatus()).isEqualTo(500);
+        assertThat(actual.getDetail()).isEqualTo("Unexpected internal exception");
+        assertThat(actual.getInstance()).isEqualTo(URI.create("/throws-an-exception"));
+        assertThat(actual.getProperties()).containsEntry("from-catch-all", true);
+    }
+
+    @Test
+    void should_count_hits_and_misses() {
+        cache.get(ProblemDetail.forStatus(HttpStatus.NOT_FOUND), MediaType.APPLICATION_PROBLEM_JSON);
+        cache.get(ProblemDetail.forStatus(HttpStatus.NOT_FOUND), MediaType.APPLICATION_PROBLEM_JSON);
+        cache.get(ProblemDetail.forStatus(HttpStatus.METHOD_NOT_ALLOWED), MediaType.APPLICATION_PROBLEM_JSON);
+
+        assertThat(cache.getStatistics()).isEqualTo(new ProblemBodyCache.Statistics(1, 2, 2));
+    }
+
+    @Test
+    void should_not_grow_beyond_maximum_size() {
+        for (int i = 0; i < 100; i++) {
+            ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, "No endpoint GET /scan/" + i + ".");
+            assertThat(cache.get(problemDetail, MediaType.APPLICATION_PROBLEM_JSON)).isNotNull();
+        }
+
+        assertThat(cache.getStatistics().size()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void should_keep_used_bodies_while_one_off_bodies_are_evicted() {
+        ProblemDetail constant = ProblemDetail.forStatus(HttpStatus.SERVICE_UNAVAILABLE);
+        ProblemBody body = cache.get(constant, MediaType.APPLICATION_PROBLEM_JSON);
+
+        for (int i = 0; i < 100; i++) {
+            cache.get(ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, "No endpoint GET /scan/" + i + "."), MediaType.APPLICATION_PROBLEM_JSON);
+            assertThat(cache.get(constant, MediaType.APPLICATION_PROBLEM_JSON)).isSameAs(body);
+        }
+    }
+
+    @Test
+    void should_keep_constant_bodies_in_the_cache() {
+        Object constant = new Object();
+        ProblemDetail problemDetail = ProblemDetail.forStatus(HttpStatus.SERVICE_UNAVAILABLE);
+
+        ProblemBody body = cache.getConstant(constant, problemDetail);
+        assertThat(cache.getConstant(constant, problemDetail)).isSameAs(body);
+
+        cache.clear();
+
+        assertThat(cache.getConstant(constant, problemDetail)).isNotSameAs(body);
+    }
+
+    @Test
+    void should_not_cache_problems_with_structured_properties() {
+        ProblemDetail problemDetail = ProblemDetail.forStatus(HttpStatus.BAD_REQUEST);
+        problemDetail.setProperty("errors", List.of("a", "b"));
+
+        assertThat(cache.get(problemDetail, MediaType.APPLICATION_PROBLEM_JSON)).isNull();
+    }
+
+}
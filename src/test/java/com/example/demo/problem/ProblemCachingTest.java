@@ -0,0 +1,46 @@
+package com.example.demo.problem;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProblemCachingTest {
+
+    ProblemCaching caching = new ProblemCaching(Set.of(HttpStatus.NOT_FOUND), Duration.ofSeconds(10));
+
+    @Test
+    void should_cache_selected_statuses_of_safe_methods() {
+        assertThat(caching.getCacheControl("GET", 404)).isEqualTo("max-age=10, public");
+        assertThat(caching.getCacheControl("HEAD", 404)).isEqualTo("max-age=10, public");
+        assertThat(caching.getCacheControl("POST", 404)).isNull();
+        assertThat(caching.getCacheControl("GET", 500)).isNull();
+    }
+
+    @Test
+    void should_match_if_none_match_weakly() {
+        assertThat(ProblemCaching.isNotModified(List.of("\"a\", W/\"b\""), "\"b\"")).isTrue();
+        assertThat(ProblemCaching.isNotModified(List.of("\"a\""), "W/\"a\"")).isTrue();
+        assertThat(ProblemCaching.isNotModified(List.of("\"a\""), "\"b\"")).isFalse();
+        assertThat(ProblemCaching.isNotModified(null, "\"a\"")).isFalse();
+    }
+
+    @Test
+    void should_not_match_wildcard_as_there_is_no_current_representation() {
+        assertThat(ProblemCaching.isNotModified(List.of("*"), "\"a\"")).isFalse();
+    }
+
+    @Test
+    void should_compute_entity_tag_without_instance() {
+        ProblemBody body = new ProblemBody("{\"status\":404}".getBytes());
+
+        assertThat(body.getEntityTag()).startsWith("\"").endsWith("\"")
+                .isEqualTo(new ProblemBody("{\"status\":404}".getBytes()).getEntityTag())
+                .isNotEqualTo(new ProblemBody("{\"status\":410}".getBytes()).getEntityTag());
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.example.demo.problem;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProblemDetailJsonWriterTest {
+
+    ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    ProblemDetailJsonWriter writer = new ProblemDetailJsonWriter(objectMapper);
+
+    @Test
+    void should_write_the_same_json_as_the_object_mapper() throws Exception {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "Invalid request content.");
+        problemDetail.setInstance(URI.create("/throws-a-problem"));
+        problemDetail.setProperty("from-catch-all", true);
+        problemDetail.setProperty("errors", List.of(Map.of("field", "name")));
+
+        assertThat(new String(writer.writeAsBytes(problemDetail), StandardCharsets.UTF_8))
+                .isEqualTo(objectMapper.writeValueAsString(problemDetail));
+    }
+
+    @Test
+    void should_write_subclasses_with_the_object_mapper() throws Exception {
+        ProblemDetail problemDetail = new CodedProblemDetail("E42");
+
+        assertThat(new String(writer.writeAsBytes(problemDetail), StandardCharsets.UTF_8))
+                .isEqualTo(objectMapper.writeValueAsString(problemDetail))
+                .contains("\"code\":\"E42\"");
+    }
+
+    @Test
+    void should_write_smaller_cbor_than_json() {
+        ProblemDetailJsonWriter cborWriter = new ProblemDetailJsonWriter(Jackson2ObjectMapperBuilder.cbor().build());
+        ProblemDetail minimal = ProblemDetail.forStatus(HttpStatus.NOT_FOUND);
+        minimal.setInstance(URI.create("/api/orders/42"));
+        ProblemDetail extended = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "Invalid request content.");
+        extended.setInstance(URI.create("/api/orders"));
+        extended.setProperty("errorCount", 2);
+        extended.setProperty("errors", List.of("quantity must be greater than 0", "customerId must not be null"));
+
+        assertThat(cborWriter.writeAsBytes(minimal)).hasSizeLessThan(writer.writeAsBytes(minimal).length);
+        assertThat(cborWriter.writeAsBytes(extended)).hasSizeLessThan(writer.writeAsBytes(extended).length);
+    }
+
+    @Test
+    void should_leave_output_stream_open() throws IOException {
+        ClosableOutputStream outputStream = new ClosableOutputStream();
+
+        writer.write(ProblemDetail.forStatus(HttpStatus.NOT_FOUND), outputStream);
+
+        assertThat(outputStream.closed).isFalse();
+        assertThat(outputStream.toString(StandardCharsets.UTF_8)).isEqualTo("{\"type\":\"about:blank\",\"title\":\"Not Found\",\"status\":404}");
+    }
+
+    @Test
+    void should_write_to_data_buffer() {
+        DataBuffer buffer = writer.write(ProblemDetail.forStatus(HttpStatus.NOT_FOUND), DefaultDataBufferFactory.sharedInstance);
+
+        assertThat(buffer.toString(StandardCharsets.UTF_8)).isEqualTo("{\"type\":\"about:blank\",\"title\":\"Not Found\",\"status\":404}");
+    }
+
+    static class CodedProblemDetail extends ProblemDetail {
+
+        private final String code;
+
+        CodedProblemDetail(String code) {
+            super(HttpStatus.CONFLICT.value());
+            this.code = code;
+        }
+
+        public String getCode() {
+            return code;
+        }
+    }
+
+    static class ClosableOutputStream extends ByteArrayOutputStream {
+
+        boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+}
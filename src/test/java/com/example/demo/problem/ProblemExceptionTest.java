@@ -0,0 +1,29 @@
+package com.example.demo.problem;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProblemExceptionTest {
+
+    ProblemStackTraces stackTraces = new ProblemStackTraces(Set.of(HttpStatus.Series.CLIENT_ERROR, HttpStatus.Series.SERVER_ERROR));
+
+    @Test
+    void should_skip_stack_trace_for_stackless_series() {
+        assertThat(new ProblemException(stackTraces, HttpStatus.BAD_REQUEST).getStackTrace()).isEmpty();
+    }
+
+    @Test
+    void should_always_capture_stack_trace_for_server_errors() {
+        assertThat(new ProblemException(stackTraces, HttpStatus.INTERNAL_SERVER_ERROR).getStackTrace()).isNotEmpty();
+    }
+
+    @Test
+    void should_capture_stack_trace_by_default() {
+        assertThat(new ProblemException(ProblemStackTraces.CAPTURED, HttpStatus.BAD_REQUEST).getStackTrace()).isNotEmpty();
+    }
+
+}
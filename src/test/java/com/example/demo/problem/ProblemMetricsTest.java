@@ -0,0 +1,80 @@
+package com.example.demo.problem;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProblemMetricsTest {
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    ProblemMetrics metrics = new ProblemMetrics(registry);
+
+    @Test
+    void should_record_problems_with_tags() {
+        metrics.record(ProblemOrigin.CATCH_ALL_ADVICE, 500, "about:blank", IllegalStateException.class, TimeUnit.MILLISECONDS.toNanos(3));
+        metrics.record(ProblemOrigin.CATCH_ALL_ADVICE, 500, "about:blank", IllegalStateException.class, TimeUnit.MILLISECONDS.toNanos(5));
+        metrics.record(ProblemOrigin.ERROR_CONTROLLER, 404, null, null, TimeUnit.MILLISECONDS.toNanos(1));
+
+        Timer catchAll = registry.get(ProblemMetrics.METRIC_NAME)
+                .tags("origin", "catch-all-advice", "status", "500", "type", "about:blank", "exception", "IllegalStateException")
+                .timer();
+        assertThat(catchAll.count()).isEqualTo(2);
+        assertThat(catchAll.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(8);
+
+        Timer errorController = registry.get(ProblemMetrics.METRIC_NAME)
+                .tags("origin", "error-controller", "status", "404", "type", "none", "exception", "none")
+                .timer();
+        assertThat(errorController.count()).isEqualTo(1);
+    }
+
+    @Test
+    void should_ignore_statuses_that_are_not_errors() {
+        metrics.record(ProblemOrigin.OTHER, 200, null, null, 1);
+        metrics.record(ProblemOrigin.OTHER, 302, null, null, 1);
+
+        assertThat(registry.find(ProblemMetrics.METRIC_NAME).timers()).isEmpty();
+    }
+
+    @Test
+    void should_determine_origin_of_exception_handlers() throws NoSuchMethodException {
+        assertThat(ProblemOrigin.forExceptionHandler(Problems.class, Problems.class.getMethod("handleException", Exception.class)))
+                .isEqualTo(ProblemOrigin.CATCH_ALL_ADVICE);
+        assertThat(ProblemOrigin.forExceptionHandler(Problems.class, Problems.class.getMethod("handleIllegalState", IllegalStateException.class)))
+                .isEqualTo(ProblemOrigin.EXCEPTION_HANDLER);
+        assertThat(ProblemOrigin.forExceptionHandler(Problems.class, Problems.class.getMethod("handleThrowable")))
+                .isEqualTo(ProblemOrigin.CATCH_ALL_ADVICE);
+        assertThat(ProblemOrigin.forExceptionHandler(ProblemDetails.class, ResponseEntityExceptionHandler.class.getMethod("handleException", Exception.class, WebRequest.class)))
+                .isEqualTo(ProblemOrigin.RESPONSE_ENTITY_EXCEPTION_HANDLER);
+    }
+
+    static class ProblemDetails extends ResponseEntityExceptionHandler {
+    }
+
+    static class Problems {
+
+        @ExceptionHandler
+        public ProblemDetail handleException(Exception ex) {
+            return ProblemDetail.forStatus(500);
+        }
+
+        @ExceptionHandler
+        public ProblemDetail handleIllegalState(IllegalStateException ex) {
+            return ProblemDetail.forStatus(500);
+        }
+
+        @ExceptionHandler(Throwable.class)
+        public ProblemDetail handleThrowable() {
+            return ProblemDetail.forStatus(500);
+        }
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.example.demo.problem;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.HttpStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProblemStackTracesTest {
+
+    ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ProblemSupportAutoConfiguration.class));
+
+    @Test
+    void should_bind_series_from_indexed_properties() {
+        contextRunner.withPropertyValues("problem-support.stackless.series[0]=client-error")
+                .run(context -> assertThat(context.getBean(ProblemStackTraces.class).isCaptured(HttpStatus.BAD_REQUEST)).isFalse());
+    }
+
+    @Test
+    void should_keep_series_per_application_context() {
+        contextRunner.withPropertyValues("problem-support.stackless.series=client-error").run(stackless ->
+                contextRunner.run(other -> {
+                    assertThat(stackless.getBean(ProblemStackTraces.class).isCaptured(HttpStatus.BAD_REQUEST)).isFalse();
+                    assertThat(other.getBean(ProblemStackTraces.class).isCaptured(HttpStatus.BAD_REQUEST)).isTrue();
+                }));
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.example.demo.problem;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class ProblemTranslationsTest {
+
+    ProblemTranslations translations = ProblemTranslations.builder()
+            .translate(IOException.class, ex -> ProblemDetail.forStatusAndDetail(HttpStatus.BAD_GATEWAY, ex.getMessage()))
+            .constant(RuntimeException.class, ProblemDetail.forStatus(HttpStatus.INTERNAL_SERVER_ERROR))
+            .build();
+
+    @Test
+    void should_translate_registered_type() {
+        ProblemDetail problemDetail = translations.translate(new IOException("Connection reset"));
+
+        assertThat(problemDetail.getStatus()).isEqualTo(HttpStatus.BAD_GATEWAY.value());
+        assertThat(problemDetail.getDetail()).isEqualTo("Connection reset");
+    }
+
+    @Test
+    void should_translate_subclass_with_closest_registered_type() {
+        assertThat(translations.translate(new FileNotFoundException("missing")).getStatus()).isEqualTo(HttpStatus.BAD_GATEWAY.value());
+        assertThat(translations.translate(new UncheckedIOException(new IOException())).getStatus()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR.value());
+    }
+
+    @Test
+    void should_not_translate_unregistered_type() {
+        assertThat(translations.translate(new Exception("checked"))).isNull();
+        assertThat(translations.canTranslate(Error.class)).isFalse();
+        assertThat(translations.canTranslate(IllegalStateException.class)).isTrue();
+    }
+
+    @Test
+    void should_reject_duplicate_registration() {
+        ProblemTranslations.Builder builder = ProblemTranslations.builder()
+                .constant(RuntimeException.class, ProblemDetail.forStatus(HttpStatus.INTERNAL_SERVER_ERROR));
+
+        assertThatIllegalStateException()
+                .isThrownBy(() -> builder.constant(RuntimeException.class, ProblemDetail.forStatus(HttpStatus.SERVICE_UNAVAILABLE)))
+                .withMessageContaining(RuntimeException.class.getName());
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.example.demo.problem;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResourceMissCacheTest {
+
+    AtomicLong nanoTime = new AtomicLong();
+
+    ResourceMissCache cache = new ResourceMissCache(4, Duration.ofSeconds(10), nanoTime::get);
+
+    Object handler = new Object();
+
+    @Test
+    void should_remember_misses_per_handler() {
+        cache.put(handler, "non-existing");
+
+        assertThat(cache.isMiss(handler, "non-existing")).isTrue();
+        assertThat(cache.isMiss(handler, "other")).isFalse();
+        assertThat(cache.isMiss(new Object(), "non-existing")).isFalse();
+    }
+
+    @Test
+    void should_forget_misses_after_time_to_live() {
+        cache.put(handler, "non-existing");
+
+        nanoTime.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertThat(cache.isMiss(handler, "non-existing")).isFalse();
+        assertThat(cache.getStatistics().size()).isZero();
+    }
+
+    @Test
+    void should_keep_used_misses_while_one_off_misses_are_evicted() {
+        cache.put(handler, "first");
+        cache.put(handler, "second");
+        cache.isMiss(handler, "first");
+        cache.put(handler, "third");
+
+        assertThat(cache.isMiss(handler, "first")).isTrue();
+        assertThat(cache.isMiss(handler, "second")).isFalse();
+        assertThat(cache.isMiss(handler, "third")).isTrue();
+    }
+
+    @Test
+    void should_not_grow_beyond_maximum_size() {
+        for (int i = 0; i < 100; i++) {
+            cache.put(handler, "non-existing-" + i);
+        }
+
+        assertThat(cache.getStatistics().size()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void should_forget_all_misses_on_clear() {
+        cache.put(handler, "non-existing");
+
+        cache.clear();
+
+        assertThat(cache.isMiss(handler, "non-existing")).isFalse();
+    }
+
+    @Test
+    void should_count_hits_and_misses() {
+        cache.put(handler, "non-existing");
+        cache.isMiss(handler, "non-existing");
+        cache.isMiss(handler, "non-existing");
+        cache.isMiss(handler, "other");
+
+        ResourceMissCache.Statistics statistics = cache.getStatistics();
+        assertThat(statistics.hitCount()).isEqualTo(2);
+        assertThat(statistics.missCount()).isEqualTo(1);
+        assertThat(statistics.size()).isEqualTo(1);
+        assertThat(statistics.hitRate()).isEqualTo(2.0 / 3);
+    }
+
+}
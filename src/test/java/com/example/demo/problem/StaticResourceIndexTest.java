@@ -0,0 +1,53 @@
+package com.example.demo.problem;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StaticResourceIndexTest {
+
+    StaticResourceIndex index = StaticResourceIndex.scan(new PathMatchingResourcePatternResolver(),
+            List.of(new ClassPathResource("static-resource-index/"), new ClassPathResource("non-existing-location/")));
+
+    @Test
+    void should_not_report_existing_resources_as_absent() {
+        assertThat(index.isAbsent("css/site.css")).isFalse();
+        assertThat(index.isAbsent("/css/site.css")).isFalse();
+        assertThat(index.isAbsent("css")).isFalse();
+    }
+
+    @Test
+    void should_report_unknown_paths_as_absent() {
+        assertThat(index.isAbsent("non-existing")).isTrue();
+        assertThat(index.isAbsent("css/other.css")).isTrue();
+    }
+
+    /**
+     * Resources can be added to a file system location while the application runs.
+     */
+    @Test
+    void should_not_index_file_system_locations() {
+        List<Resource> locations = List.of(new ClassPathResource("static-resource-index/"), new FileSystemResource("static/"));
+
+        assertThat(StaticResourceIndex.scan(new PathMatchingResourcePatternResolver(), locations)).isNull();
+    }
+
+    /**
+     * The handler may resolve these in its own way, so only the handler can tell.
+     */
+    @Test
+    void should_not_report_paths_it_can_not_judge_as_absent() {
+        assertThat(index.isAbsent("")).isFalse();
+        assertThat(index.isAbsent("CSS/Site.css")).isFalse();
+        assertThat(index.isAbsent("css/site%2Ecss")).isFalse();
+        assertThat(index.isAbsent("css/../css/site.css")).isFalse();
+        assertThat(index.isAbsent("css//site.css")).isFalse();
+    }
+
+}
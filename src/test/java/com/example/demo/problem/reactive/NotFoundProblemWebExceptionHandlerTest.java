@@ -0,0 +1,57 @@
+package com.example.demo.problem.reactive;
+
+import com.example.demo.problem.ErrorRepresentationResolver;
+import com.example.demo.problem.ProblemBodyCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.ErrorResponseException;
+import org.springframework.web.reactive.resource.NoResourceFoundException;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NotFoundProblemWebExceptionHandlerTest {
+
+    NotFoundProblemWebExceptionHandler handler = new NotFoundProblemWebExceptionHandler(
+            new ProblemBodyCache(Jackson2ObjectMapperBuilder.json().build(), 16), new ErrorRepresentationResolver(16), null, null);
+
+    @Test
+    void should_render_404_of_resource_handler() {
+        MockServerWebExchange exchange = exchange();
+
+        handler.handle(exchange, new NoResourceFoundException("non-existing")).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(exchange.getResponse().getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_PROBLEM_JSON);
+    }
+
+    @Test
+    void should_render_404_of_dispatcher_handler() {
+        MockServerWebExchange exchange = exchange();
+
+        handler.handle(exchange, new ResponseStatusException(HttpStatus.NOT_FOUND)).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void should_leave_404_error_responses_of_the_application() {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, "Order 42 does not exist");
+        ErrorResponseException ex = new ErrorResponseException(HttpStatus.NOT_FOUND, problemDetail, null);
+
+        assertThatThrownBy(() -> handler.handle(exchange(), ex).block()).isSameAs(ex);
+        assertThatThrownBy(() -> handler.handle(exchange(), new ResponseStatusException(HttpStatus.NOT_FOUND, "No order 42")).block())
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    private static MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/non-existing").accept(MediaType.APPLICATION_JSON));
+    }
+
+}